@@ -0,0 +1,219 @@
+package de.thab.algo.abstractdatastructures;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Single points of failure of an undirected network: bridges, whose loss splits the network,
+ * articulation points, whose loss does the same for a node, and the 2-edge-connected
+ * components that stay connected whatever single link fails.
+ *
+ * All three come from one depth-first search with Tarjan's lowlinks in O(V + E). The search
+ * keeps its own stack and an edge cursor per node instead of recursing, so it handles
+ * city-size networks and long chains without overflowing the call stack.
+ */
+public final class Biconnectivity {
+    private final int numberOfNodes;
+    private final int[] bridgeSources;
+    private final int[] bridgeTargets;
+    private final int numberOfBridges;
+    private final boolean[] articulation;
+    private final int[] component;
+    private final int numberOfComponents;
+
+    private Biconnectivity(int numberOfNodes, int[] bridgeSources, int[] bridgeTargets, int numberOfBridges,
+                           boolean[] articulation, int[] component, int numberOfComponents) {
+        this.numberOfNodes = numberOfNodes;
+        this.bridgeSources = bridgeSources;
+        this.bridgeTargets = bridgeTargets;
+        this.numberOfBridges = numberOfBridges;
+        this.articulation = articulation;
+        this.component = component;
+        this.numberOfComponents = numberOfComponents;
+    }
+
+    /**
+     * Analyzes an undirected graph whose links are stored in both directions, as by
+     * Graph.addEdge.
+     *
+     * @param graph The graph.
+     * @return The bridges, articulation points and 2-edge-connected components.
+     */
+    public static Biconnectivity analyze(CompactGraph graph) {
+        return analyze(graph, null, edgeId -> true);
+    }
+
+    /**
+     * Analyzes the undirected structure of a directed graph: every open edge links its two
+     * ends, whatever its direction. All edges between the same two nodes, in either direction,
+     * form one link, just as a road closure takes both directions of a street at once.
+     *
+     * @param forward  The graph.
+     * @param backward The transposed graph, so every edge is seen from both ends, or null if
+     *                 the forward graph already stores every link in both directions.
+     * @param isOpen   Tells by edge id which edges exist; closed edges are ignored.
+     * @return The bridges, articulation points and 2-edge-connected components.
+     */
+    public static Biconnectivity analyze(CompactGraph forward, CompactGraph backward, IntPredicate isOpen) {
+        int n = forward.getNumberOfNodes();
+        int[] discovery = new int[n];
+        int[] low = new int[n];
+        int[] parent = new int[n];
+        // position in the edges of forward, then backward
+        int[] cursor = new int[n];
+        boolean[] parentSkipped = new boolean[n];
+        Arrays.fill(discovery, -1);
+
+        int[] stack = new int[n];
+        // nodes whose 2-edge-connected component is still open
+        int[] pending = new int[n];
+        int pendingSize = 0;
+        int[] component = new int[n];
+        int numberOfComponents = 0;
+        boolean[] articulation = new boolean[n];
+        int[] bridgeSources = new int[Math.max(0, n - 1)];
+        int[] bridgeTargets = new int[bridgeSources.length];
+        int numberOfBridges = 0;
+        int time = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (discovery[root] != -1) {
+                continue;
+            }
+            int rootChildren = 0;
+            int size = 0;
+            stack[size++] = root;
+            discovery[root] = low[root] = time++;
+            parent[root] = -1;
+            pending[pendingSize++] = root;
+
+            while (size > 0) {
+                int v = stack[size - 1];
+                int forwardDegree = forward.edgeEnd(v) - forward.edgeStart(v);
+                int degree = forwardDegree + (backward == null ? 0 : backward.edgeEnd(v) - backward.edgeStart(v));
+                if (cursor[v] < degree) {
+                    int position = cursor[v]++;
+                    CompactGraph side = position < forwardDegree ? forward : backward;
+                    int e = position < forwardDegree
+                            ? forward.edgeStart(v) + position
+                            : backward.edgeStart(v) + position - forwardDegree;
+                    if (!isOpen.test(side.edgeId(e))) {
+                        continue;
+                    }
+                    int w = side.edgeTarget(e);
+                    // the link to the parent is seen once more from this end; in a symmetric graph
+                    // any other copy is a parallel link and closes a cycle, while in a directed
+                    // graph both directions of a road are the same link and both are skipped
+                    if (w == parent[v] && (backward != null || !parentSkipped[v])) {
+                        parentSkipped[v] = true;
+                        continue;
+                    }
+                    if (discovery[w] == -1) {
+                        discovery[w] = low[w] = time++;
+                        parent[w] = v;
+                        stack[size++] = w;
+                        pending[pendingSize++] = w;
+                        if (v == root) {
+                            rootChildren++;
+                        }
+                    } else {
+                        low[v] = Math.min(low[v], discovery[w]);
+                    }
+                    continue;
+                }
+
+                size--;
+                if (low[v] == discovery[v]) {
+                    // no back edge leaves the subtree of v, so it closes a component
+                    int member;
+                    do {
+                        member = pending[--pendingSize];
+                        component[member] = numberOfComponents;
+                    } while (member != v);
+                    numberOfComponents++;
+                }
+                int p = parent[v];
+                if (p == -1) {
+                    continue;
+                }
+                low[p] = Math.min(low[p], low[v]);
+                if (low[v] > discovery[p]) {
+                    bridgeSources[numberOfBridges] = p;
+                    bridgeTargets[numberOfBridges] = v;
+                    numberOfBridges++;
+                }
+                if (p != root && low[v] >= discovery[p]) {
+                    articulation[p] = true;
+                }
+            }
+            articulation[root] = rootChildren > 1;
+        }
+        return new Biconnectivity(n, bridgeSources, bridgeTargets, numberOfBridges,
+                articulation, component, numberOfComponents);
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public int getNumberOfBridges() {
+        return numberOfBridges;
+    }
+
+    /**
+     * @param bridge The index of the bridge.
+     * @return The end of the bridge found first by the search.
+     */
+    public int getBridgeSource(int bridge) {
+        return bridgeSources[bridge];
+    }
+
+    /**
+     * @param bridge The index of the bridge.
+     * @return The other end of the bridge.
+     */
+    public int getBridgeTarget(int bridge) {
+        return bridgeTargets[bridge];
+    }
+
+    /**
+     * @param node The node.
+     * @return true if removing the node disconnects some of its neighbours from each other.
+     */
+    public boolean isArticulationPoint(int node) {
+        return articulation[node];
+    }
+
+    /**
+     * @return The articulation points in ascending order.
+     */
+    public int[] getArticulationPoints() {
+        int count = 0;
+        for (boolean a : articulation) {
+            if (a) {
+                count++;
+            }
+        }
+        int[] points = new int[count];
+        for (int v = 0, i = 0; v < numberOfNodes; v++) {
+            if (articulation[v]) {
+                points[i++] = v;
+            }
+        }
+        return points;
+    }
+
+    /**
+     * @param node The node.
+     * @return The 2-edge-connected component of the node, between 0 and
+     *         {@link #getNumberOfComponents()}; two nodes share one if no single failed link
+     *         separates them.
+     */
+    public int getComponent(int node) {
+        return component[node];
+    }
+
+    public int getNumberOfComponents() {
+        return numberOfComponents;
+    }
+}
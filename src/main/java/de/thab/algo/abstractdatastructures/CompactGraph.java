@@ -0,0 +1,262 @@
+package de.thab.algo.abstractdatastructures;
+
+import de.thab.algo.abstractdatastructures.queue.CustomPriorityQueue;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed sparse row (CSR) representation of a weighted graph.
+ *
+ * The outgoing edges of vertex {@code v} occupy the slots
+ * {@code [edgeStart(v), edgeEnd(v))} of the target and weight arrays, so iterating
+ * the neighbours of a vertex is a sequential scan over two primitive arrays instead
+ * of chasing one heap object per edge.
+ * <pre>
+ * for (int e = csr.edgeStart(u); e &lt; csr.edgeEnd(u); e++) {
+ *     int v = csr.edgeTarget(e);
+ *     int w = csr.edgeWeight(e);
+ * }
+ * </pre>
+ */
+public final class CompactGraph {
+    private final int numberOfNodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] edgeIds;
+    private final String[] nodeNames;
+
+    /**
+     * Constructs a CompactGraph from already filled CSR arrays.
+     *
+     * @param nodeNames An array of node names.
+     * @param offsets   Start slot of every vertex, with {@code offsets[V]} equal to the number of edges.
+     * @param targets   The destination vertex of every edge slot.
+     * @param weights   The weight of every edge slot.
+     * @param edgeIds   The stable id of every edge slot, see {@link GraphBuilder}.
+     */
+    CompactGraph(String[] nodeNames, int[] offsets, int[] targets, int[] weights, int[] edgeIds) {
+        this.numberOfNodes = offsets.length - 1;
+        this.nodeNames = nodeNames;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.edgeIds = edgeIds;
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public int getNumberOfEdges() {
+        return offsets[numberOfNodes];
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @return The first edge slot of the vertex.
+     */
+    public int edgeStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @return The slot after the last edge of the vertex.
+     */
+    public int edgeEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    /**
+     * @param edge The edge slot.
+     * @return The destination vertex of the edge.
+     */
+    public int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * @param edge The edge slot.
+     * @return The weight of the edge.
+     */
+    public int edgeWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * @param edge The edge slot.
+     * @return The id the edge was given when it was added to the {@link GraphBuilder}.
+     */
+    public int edgeId(int edge) {
+        return edgeIds[edge];
+    }
+
+    public int getDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    /**
+     * Finds the slot of the first edge from {@code src} to {@code dest}.
+     *
+     * @param src  The source vertex.
+     * @param dest The destination vertex.
+     * @return The edge slot, or -1 if no such edge exists.
+     */
+    public int findEdge(int src, int dest) {
+        for (int e = offsets[src]; e < offsets[src + 1]; e++) {
+            if (targets[e] == dest) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the weight of the edge between two nodes.
+     *
+     * @param src  The source node.
+     * @param dest The destination node.
+     * @return The weight of the edge, or 0 if no edge exists.
+     */
+    public int getWeight(int src, int dest) {
+        int edge = findEdge(src, dest);
+        return edge == -1 ? 0 : weights[edge];
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the source over all edges of this graph.
+     *
+     * @param source  The source vertex.
+     * @param context The workspace to run the search in.
+     * @return The shortest path tree, valid until the context's next search.
+     */
+    public ShortestPathTree dijkstra(int source, SearchContext context) {
+        context.ensureCapacity(numberOfNodes);
+        context.start();
+        context.update(source, 0, -1);
+
+        CustomPriorityQueue pq = context.getQueue();
+        pq.enqueue(source, 0);
+
+        int settledCount = 0;
+        while (!pq.isEmpty()) {
+            int u = pq.dequeueVertex();
+            context.settle(u);
+            settledCount++;
+            int distance = context.getDistance(u);
+
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (context.isSettled(v)) {
+                    continue;
+                }
+                int newDist = distance + weights[e];
+                if (newDist < context.getDistance(v)) {
+                    context.update(v, newDist, u);
+                    pq.enqueueOrDecreaseKey(v, newDist);
+                }
+            }
+        }
+
+        return context.toTree(source, numberOfNodes, settledCount);
+    }
+
+    /**
+     * Runs one Dijkstra search from several sources at once.
+     *
+     * All sources start at distance zero, and every vertex inherits the source of the
+     * parent it was reached from. When a vertex is settled its distance is the distance to
+     * the nearest source, so one search replaces one search per source. Ties go to the
+     * source whose region reaches the vertex first.
+     *
+     * @param sources The source vertices, duplicates are ignored.
+     * @param context The workspace to run the search in.
+     * @return The nearest source and its distance for every vertex.
+     */
+    public NearestSourceMap multiSourceDijkstra(int[] sources, SearchContext context) {
+        context.ensureCapacity(numberOfNodes);
+        context.start();
+        int[] nearest = new int[numberOfNodes];
+        Arrays.fill(nearest, -1);
+
+        CustomPriorityQueue pq = context.getQueue();
+        for (int source : sources) {
+            if (nearest[source] == -1) {
+                nearest[source] = source;
+                context.update(source, 0, -1);
+                pq.enqueue(source, 0);
+            }
+        }
+
+        int settledCount = 0;
+        while (!pq.isEmpty()) {
+            int u = pq.dequeueVertex();
+            context.settle(u);
+            settledCount++;
+            int distance = context.getDistance(u);
+
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (context.isSettled(v)) {
+                    continue;
+                }
+                int newDist = distance + weights[e];
+                if (newDist < context.getDistance(v)) {
+                    context.update(v, newDist, u);
+                    nearest[v] = nearest[u];
+                    pq.enqueueOrDecreaseKey(v, newDist);
+                }
+            }
+        }
+
+        int[] distances = new int[numberOfNodes];
+        int[] parents = new int[numberOfNodes];
+        for (int v = 0; v < numberOfNodes; v++) {
+            distances[v] = context.getDistance(v);
+            parents[v] = context.getParent(v);
+        }
+        return new NearestSourceMap(nearest, distances, parents, settledCount);
+    }
+
+    /**
+     * Builds the reverse graph, in which every edge points from its target to its source.
+     *
+     * Reverse edges keep the weight and the id of the edge they were built from, so state
+     * kept per edge id applies to both directions of a search.
+     *
+     * @return The transposed graph.
+     */
+    public CompactGraph transpose() {
+        int numberOfEdges = getNumberOfEdges();
+        int[] reverseOffsets = new int[numberOfNodes + 1];
+        for (int e = 0; e < numberOfEdges; e++) {
+            reverseOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < numberOfNodes; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+
+        int[] cursor = Arrays.copyOf(reverseOffsets, numberOfNodes);
+        int[] reverseTargets = new int[numberOfEdges];
+        int[] reverseWeights = new int[numberOfEdges];
+        int[] reverseIds = new int[numberOfEdges];
+        for (int u = 0; u < numberOfNodes; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = cursor[targets[e]]++;
+                reverseTargets[slot] = u;
+                reverseWeights[slot] = weights[e];
+                reverseIds[slot] = edgeIds[e];
+            }
+        }
+        return new CompactGraph(nodeNames, reverseOffsets, reverseTargets, reverseWeights, reverseIds);
+    }
+
+    public String getNodeName(int node) {
+        return nodeNames[node];
+    }
+
+    public String[] getNodeNames() {
+        return nodeNames;
+    }
+}
@@ -0,0 +1,85 @@
+package de.thab.algo.abstractdatastructures;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free disjoint-set forest that several threads can update at once.
+ *
+ * Parent links live in an {@link AtomicIntegerArray}. {@link #find(int)} shortens paths by
+ * halving with compare-and-set, which may fail harmlessly when another thread got there
+ * first. {@link #union(int, int)} links the root with the larger index below the one with
+ * the smaller index, so concurrent unions can never create a cycle, and retries if a root
+ * was linked by another thread in the meantime.
+ */
+public class ConcurrentUnionFind {
+    private final AtomicIntegerArray parent;
+
+    /**
+     * Constructs a ConcurrentUnionFind in which every element is its own set.
+     *
+     * @param numberOfElements The number of elements.
+     */
+    public ConcurrentUnionFind(int numberOfElements) {
+        parent = new AtomicIntegerArray(numberOfElements);
+        for (int i = 0; i < numberOfElements; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * @param element The element.
+     * @return The representative of its set at the time of the call.
+     */
+    public int find(int element) {
+        while (true) {
+            int p = parent.get(element);
+            if (p == element) {
+                return element;
+            }
+            int grandparent = parent.get(p);
+            if (grandparent != p) {
+                parent.compareAndSet(element, p, grandparent);
+            }
+            element = grandparent;
+        }
+    }
+
+    /**
+     * Merges the sets containing two elements.
+     *
+     * @param a The first element.
+     * @param b The second element.
+     * @return true if this call merged two different sets.
+     */
+    public boolean union(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return false;
+            }
+            if (rootA < rootB) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            if (parent.compareAndSet(rootA, rootA, rootB)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean connected(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return true;
+            }
+            // rootA may have been linked meanwhile, only a stable root proves separation
+            if (parent.get(rootA) == rootA) {
+                return false;
+            }
+        }
+    }
+}
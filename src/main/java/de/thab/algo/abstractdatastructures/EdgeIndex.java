@@ -0,0 +1,71 @@
+package de.thab.algo.abstractdatastructures;
+
+import java.util.Arrays;
+
+/**
+ * Reverse index from a pair of vertices to the id of the edge between them.
+ *
+ * Pairs are packed into one long and kept in an open addressing table with linear probing,
+ * at most half full, so a lookup costs O(1) expected time no matter how many edges the
+ * source vertex has, and no object is allocated per edge.
+ */
+public final class EdgeIndex {
+    private static final long EMPTY = -1;
+
+    private final long[] pairs;
+    private final int[] ids;
+    private final int mask;
+
+    /**
+     * Indexes the edges of a compiled graph. If a graph keeps parallel edges, the first one
+     * of every pair is indexed.
+     *
+     * @param graph The graph.
+     */
+    public EdgeIndex(CompactGraph graph) {
+        int capacity = Integer.highestOneBit(Math.max(2, graph.getNumberOfEdges()) * 2 - 1) << 1;
+        pairs = new long[capacity];
+        ids = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(pairs, EMPTY);
+        for (int u = 0; u < graph.getNumberOfNodes(); u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                long pair = pack(u, graph.edgeTarget(e));
+                int slot = slot(pair);
+                while (pairs[slot] != EMPTY && pairs[slot] != pair) {
+                    slot = (slot + 1) & mask;
+                }
+                if (pairs[slot] == EMPTY) {
+                    pairs[slot] = pair;
+                    ids[slot] = graph.edgeId(e);
+                }
+            }
+        }
+    }
+
+    private static long pack(int src, int dest) {
+        return (long) src << 32 | (dest & 0xFFFFFFFFL);
+    }
+
+    private int slot(long pair) {
+        return (int) (pair * 0x9E3779B97F4A7C15L >>> 32) & mask;
+    }
+
+    /**
+     * @param src  The source vertex.
+     * @param dest The destination vertex.
+     * @return The id of the edge from src to dest, or -1 if there is none.
+     */
+    public int find(int src, int dest) {
+        if (src < 0 || dest < 0) {
+            return -1;
+        }
+        long pair = pack(src, dest);
+        for (int slot = slot(pair); pairs[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (pairs[slot] == pair) {
+                return ids[slot];
+            }
+        }
+        return -1;
+    }
+}
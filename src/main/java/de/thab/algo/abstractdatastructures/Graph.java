@@ -3,13 +3,25 @@ package de.thab.algo.abstractdatastructures;
 import de.thab.algo.abstractdatastructures.list.ArrayList;
 import de.thab.algo.abstractdatastructures.queue.CustomPriorityQueue;
 
+import java.util.Arrays;
+
 /**
- * Represents an undirected weighted graph using an adjacency list.
+ * Represents a weighted graph in compressed sparse row (CSR) form. {@link #addEdge(int, int, int)}
+ * links both directions, {@link #addEdgeDijkstra(int, int, int)} adds a directed edge.
+ *
+ * Edges are collected in a {@link GraphBuilder} while the graph is being loaded, so memory
+ * stays proportional to the number of edges. The algorithms run on a {@link CompactGraph}
+ * compiled from it, and {@link #freeze()} drops the builder once loading is finished so
+ * that only the primitive CSR arrays stay on the heap.
  */
 public class Graph {
     private int numberOfNodes;
-    private ArrayList<ArrayList<Node>> adj;
+    private GraphBuilder builder;
     private String[] nodeNames;
+    // CSR form of the builder, rebuilt lazily after the graph was modified
+    private CompactGraph compiled;
+    // transpose of the compiled form, built on first use
+    private CompactGraph transposed;
 
     /**
      * Represents a node in the graph with a destination and weight.
@@ -46,9 +58,7 @@ public class Graph {
     public Graph(int V,String[] nodeNames) {
         this.numberOfNodes = V;
         this.nodeNames = nodeNames;
-        adj = new ArrayList<>(V);
-        for (int i = 0; i < V; i++)
-            adj.add(new ArrayList<>(V));
+        builder = new GraphBuilder(V);
     }
 
     /**
@@ -59,8 +69,9 @@ public class Graph {
      * @param weight The weight of the edge.
      */
     public void addEdge(int src, int dest, int weight) {
-        adj.get(src).add(new Node(dest, weight));
-        adj.get(dest).add(new Node(src, weight));
+        ensureMutable();
+        builder.addEdge(src, dest, weight);
+        builder.addEdge(dest, src, weight);
     }
 
     // Modified addEdge to prevent duplicate edges
@@ -74,40 +85,91 @@ public class Graph {
      *   <li>Duplicate edges are avoided.</li>
      *   <li>If an edge already exists, the weight is updated only if the new weight is smaller.</li>
      * </ul>
+     * Duplicates are resolved when the graph is compiled, so adding an edge stays O(1). Only
+     * edges added through this method are merged; those from {@link #addEdge(int, int, int)}
+     * keep their parallels.
      *
      * @param src    The source vertex.
      * @param dest   The destination vertex.
      * @param weight The weight of the edge (must be positive).
      */
     public void addEdgeDijkstra(int src, int dest, int weight) {
+        ensureMutable();
         if (weight > 0) {  // Only add edges with positive weights
-            // Check if edge already exists and update if it does
-            boolean edgeExists = false;
-            ArrayList<Node> srcList = adj.get(src);
-            for (int i = 0; i < srcList.size(); i++) {
-                Node node = srcList.get(i);
-                if (node.dest == dest) {
-                    // Update weight if new weight is smaller
-                    if (weight < node.weight) {
-                        srcList.add(new Node(dest, weight));
-                    }
-                    edgeExists = true;
-                    break;
-                }
-            }
-            if (!edgeExists) {
-                adj.get(src).add(new Node(dest, weight));
-            }
+            builder.addMergeableEdge(src, dest, weight);
+        }
+    }
+
+    /**
+     * Compiles the collected edges into an immutable CSR representation.
+     *
+     * The result is cached until the next edge is added, so repeated queries on an
+     * unchanged graph share the same arrays.
+     *
+     * @return The compiled graph.
+     */
+    public CompactGraph compile() {
+        if (compiled == null) {
+            compiled = builder.build(nodeNames);
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns the reverse of the compiled graph, in which every edge points from its
+     * target to its source. Like {@link #compile()} the result is cached.
+     *
+     * @return The transposed graph.
+     */
+    public CompactGraph compileReverse() {
+        CompactGraph csr = compile();
+        if (transposed == null) {
+            transposed = csr.transpose();
+        }
+        return transposed;
+    }
+
+    /**
+     * Compiles the graph and releases the edge builder.
+     *
+     * After freezing, the graph is read-only and all queries run on the CSR arrays.
+     *
+     * @return The compiled graph.
+     */
+    public CompactGraph freeze() {
+        CompactGraph csr = compile();
+        builder = null;
+        return csr;
+    }
+
+    public boolean isFrozen() {
+        return builder == null;
+    }
+
+    /**
+     * Rejects modifications of a frozen graph and invalidates the compiled form.
+     */
+    private void ensureMutable() {
+        if (builder == null) {
+            throw new IllegalStateException("Graph is frozen");
         }
+        compiled = null;
+        transposed = null;
     }
 
 
     /**
      * Applies Prim's algorithm to find the Minimum Spanning Tree starting from the specified node.
      *
+     * Vertices enter the priority queue when they are first reached, so the queue only
+     * ever holds the current frontier of the tree. If the graph is disconnected, the search
+     * restarts from the lowest node not yet covered, so the result is a spanning forest.
+     * Use {@link #printMST(SpanningForest)} to display it.
+     *
      * @param startNode The starting node for the MST.
+     * @return The minimum spanning forest, rooted at the start node and the restart nodes.
      */
-    public void primMST(int startNode) {
+    public SpanningForest primMST(int startNode) {
         int[] parent = new int[numberOfNodes];
         int[] key = new int[numberOfNodes];
         boolean[] inMST = new boolean[numberOfNodes];
@@ -117,74 +179,66 @@ public class Graph {
             parent[i] = -1;
         }
 
-        key[startNode] = 0;
-
         CustomPriorityQueue pq = new CustomPriorityQueue(numberOfNodes);
-        for (int i = 0; i < numberOfNodes; i++) {
-            pq.enqueue(i, key[i]);
-        }
-
-        while (!pq.isEmpty()) {
-            int uVertex = pq.dequeue().getVertex();
-            inMST[uVertex] = true;
-
-            ArrayList<Node> adjacentNodes = adj.get(uVertex);
-            for (int j = 0; j < adjacentNodes.size(); j++) {
-                Node v = adjacentNodes.get(j);
-                int vVertex = v.dest;
-                int weight = v.weight;
-
-                if (!inMST[vVertex] && weight < key[vVertex]) {
-                    parent[vVertex] = uVertex;
-                    key[vVertex] = weight;
-                    pq.decreaseKey(vVertex, weight);
+        CompactGraph csr = compile();
+        int[] roots = new int[numberOfNodes];
+        int rootCount = 0;
+        int nextRoot = 0;
+        int root = startNode;
+        while (root != -1) {
+            roots[rootCount++] = root;
+            key[root] = 0;
+            pq.enqueue(root, 0);
+
+            while (!pq.isEmpty()) {
+                int uVertex = pq.dequeueVertex();
+                inMST[uVertex] = true;
+
+                for (int e = csr.edgeStart(uVertex); e < csr.edgeEnd(uVertex); e++) {
+                    int vVertex = csr.edgeTarget(e);
+                    int weight = csr.edgeWeight(e);
+
+                    if (!inMST[vVertex] && weight < key[vVertex]) {
+                        parent[vVertex] = uVertex;
+                        key[vVertex] = weight;
+                        pq.enqueueOrDecreaseKey(vVertex, weight);
+                    }
                 }
             }
+
+            while (nextRoot < numberOfNodes && inMST[nextRoot]) {
+                nextRoot++;
+            }
+            root = nextRoot < numberOfNodes ? nextRoot : -1;
         }
-        printMST(parent, startNode);
+        return SpanningForest.fromParents(parent, key, Arrays.copyOf(roots, rootCount));
     }
 
     /**
-     * Prints the Minimum Spanning Tree starting from the specified node.
+     * Prints the Minimum Spanning Tree.
+     *
+     * The trees are walked iteratively in preorder, so each edge is printed right after the
+     * edges leading to it, with the weight the algorithm actually chose.
      *
-     * @param parent    The array containing parent information for each node.
-     * @param startNode The starting node for printing the MST.
+     * @param forest The result of {@link #primMST(int)} or another spanning tree algorithm.
      */
-    public void printMST(int[] parent, int startNode) {
-        boolean[] visited = new boolean[numberOfNodes];
-        int totalWeight = 0;
+    public void printMST(SpanningForest forest) {
         System.out.println("\n=== Minimum Spanning Tree ===");
         System.out.println("Edge \t\tWeight");
         System.out.println("----------------------");
 
-        totalWeight = printMSTRecursive(startNode, parent, visited, totalWeight);
-
-        System.out.println("----------------------");
-        System.out.println("Total MST Weight: " + totalWeight);
-    }
-
-    /**
-     * Recursively prints the MST and calculates the total weight.
-     *
-     * @param node        The current node being processed.
-     * @param parent      The array containing parent information for each node.
-     * @param visited     Boolean array to keep track of visited nodes.
-     * @param totalWeight The current total weight of the MST.
-     * @return The updated total weight of the MST.
-     */
-    private int printMSTRecursive(int node, int[] parent, boolean[] visited, int totalWeight) {
-        visited[node] = true;
-
-        for (int i = 0; i < numberOfNodes; i++) {
-            if (parent[i] == node && !visited[i]) {
-                int weight = getWeight(node, i);
-                totalWeight += weight;
-                System.out.printf("%s -- %s \t%d%n", nodeNames[node], nodeNames[i], weight);
-                totalWeight = printMSTRecursive(i, parent, visited, totalWeight);
+        for (int node : forest.preorder()) {
+            int parent = forest.getParent(node);
+            if (parent != -1) {
+                System.out.printf("%s -- %s \t%d%n", nodeNames[parent], nodeNames[node], forest.getParentWeight(node));
             }
         }
 
-        return totalWeight;
+        System.out.println("----------------------");
+        System.out.println("Total MST Weight: " + forest.getTotalWeight());
+        if (!forest.isSpanningTree()) {
+            System.out.println("Network is disconnected: " + forest.getNumberOfTrees() + " separate trees");
+        }
     }
 
     /**
@@ -195,13 +249,7 @@ public class Graph {
      * @return The weight of the edge, or 0 if no edge exists.
      */
     public int getWeight(int src, int dest) {
-        ArrayList<Node> adjacentNodes = adj.get(src);
-        for (int j = 0; j < adjacentNodes.size(); j++) {
-            if (adjacentNodes.get(j).dest == dest) {
-                return adjacentNodes.get(j).weight;
-            }
-        }
-        return 0;
+        return compile().getWeight(src, dest);
     }
 
     /**
@@ -211,51 +259,62 @@ public class Graph {
      * The algorithm maintains a priority queue of nodes, starting from the source node,
      * and updates the shortest path to each node based on the minimum weight edge.
      * It ensures that the shortest distance from the start node to each node is calculated
-     * while avoiding cycles and revisiting nodes.
+     * while avoiding cycles and revisiting nodes. Nodes are only queued once they are
+     * discovered, so a search that stays local never touches the rest of the queue.
+     *
+     * The search runs in the {@link SearchContext} of the calling thread; use
+     * {@link #printShortestPaths(ShortestPathTree)} to display the result.
      *
      * @param startNode The starting node from which the shortest paths will be calculated.
+     * @return The shortest path tree, valid until the thread's next search.
      */
-    public void dijkstra(int startNode) {
-        int[] distances = new int[numberOfNodes];
-        boolean[] visited = new boolean[numberOfNodes];
-        int[] parent = new int[numberOfNodes];
-
-        // Initialize distances and parent array
-        for (int i = 0; i < numberOfNodes; i++) {
-            distances[i] = Integer.MAX_VALUE;
-            parent[i] = -1;
-        }
-        distances[startNode] = 0;
-
-        CustomPriorityQueue pq = new CustomPriorityQueue(numberOfNodes);
-        for (int i = 0; i < numberOfNodes; i++) {
-            pq.enqueue(i, distances[i]);
-        }
-
-        while (!pq.isEmpty()) {
-            int u = pq.dequeue().getVertex();
-            if (distances[u] == Integer.MAX_VALUE) break;  // No more reachable vertices
+    public ShortestPathTree dijkstra(int startNode) {
+        return dijkstra(startNode, SearchContext.current(numberOfNodes));
+    }
 
-            visited[u] = true;
+    /**
+     * Implements Dijkstra's algorithm using the given search workspace.
+     *
+     * Reusing the context avoids allocating and clearing arrays of size V for every query.
+     *
+     * @param startNode The starting node from which the shortest paths will be calculated.
+     * @param context   The workspace to run the search in.
+     * @return The shortest path tree, valid until the context's next search.
+     */
+    public ShortestPathTree dijkstra(int startNode, SearchContext context) {
+        return compile().dijkstra(startNode, context);
+    }
 
-            ArrayList<Node> adjacentNodes = adj.get(u);
-            for (int j = 0; j < adjacentNodes.size(); j++) {
-                Node v = adjacentNodes.get(j);
-                int vVertex = v.dest;
-                int weight = v.weight;
+    /**
+     * Finds the single points of failure of the network: links and nodes whose loss splits it.
+     *
+     * @return The bridges, articulation points and 2-edge-connected components.
+     */
+    public Biconnectivity findVulnerabilities() {
+        return Biconnectivity.analyze(compile());
+    }
 
-                if (!visited[vVertex] && distances[u] != Integer.MAX_VALUE) {
-                    int newDist = distances[u] + weight;
-                    if (newDist < distances[vVertex]) {
-                        distances[vVertex] = newDist;
-                        parent[vVertex] = u;
-                        pq.decreaseKey(vVertex, distances[vVertex]);
-                    }
-                }
-            }
-        }
+    /**
+     * Finds for every node the source it can be reached from fastest, in a single search
+     * that starts from all sources at once.
+     *
+     * @param sources The source nodes.
+     * @return The nearest source and the distance from it for every node.
+     */
+    public NearestSourceMap nearestSources(int[] sources) {
+        return compile().multiSourceDijkstra(sources, SearchContext.current(numberOfNodes));
+    }
 
-        printShortestPaths(distances, parent, startNode);
+    /**
+     * Finds for every node the target it reaches fastest, such as the closest shelter of
+     * every assembly point. The search runs from all targets at once over the reverse
+     * graph, so the paths of the result lead from each node to its target.
+     *
+     * @param targets The target nodes.
+     * @return The nearest target and the distance to it for every node.
+     */
+    public NearestSourceMap nearestTargets(int[] targets) {
+        return compileReverse().multiSourceDijkstra(targets, SearchContext.current(numberOfNodes));
     }
 
     /**
@@ -264,49 +323,44 @@ public class Graph {
      * Displays the destination node, the distance from the start node, and the path taken
      * to reach the destination node. If no path exists, it shows "No path available."
      *
-     * @param distances The array containing the shortest distance to each node.
-     * @param parent The array storing the parent node of each node along the shortest path.
-     * @param startNode The starting node from which the shortest paths were calculated.
+     * @param tree The result of {@link #dijkstra(int)}.
      */
-    private void printShortestPaths(int[] distances, int[] parent, int startNode) {
+    public void printShortestPaths(ShortestPathTree tree) {
+        int startNode = tree.getSource();
         System.out.println("\n=== Shortest Paths from " + nodeNames[startNode] + " ===");
         System.out.println("Destination\tDistance\tPath");
         System.out.println("----------------------------------------");
 
         for (int i = 0; i < numberOfNodes; i++) {
             if (i != startNode) {
-                String distance = distances[i] == Integer.MAX_VALUE ? "∞" : String.valueOf(distances[i]);
+                int distance = tree.getDistance(i);
                 System.out.printf("%-12s\t%-9s\t%s%n",
                         nodeNames[i],
-                        distance,
-                        getPath(parent, i, startNode, distances[i]));
+                        distance == Integer.MAX_VALUE ? "∞" : String.valueOf(distance),
+                        getPath(tree, i));
             }
         }
     }
 
     /**
-     * Recursively constructs the path from the start node to the current vertex.
+     * Constructs the path from the start node to the given vertex.
      *
-     * This method traces the parent nodes back to the start node and builds the path
-     * by concatenating the node names along the way.
+     * The parent pointers are walked iteratively, so long paths cannot overflow the stack.
      *
-     * @param parent The array storing the parent node of each node along the shortest path.
-     * @param currentVertex The current vertex for which the path is being traced.
-     * @param startVertex The starting node for the path calculation.
-     * @param distance The shortest distance to the current vertex.
-     * @return The path from the start node to the current vertex in a string format.
+     * @param tree          The shortest path tree.
+     * @param currentVertex The vertex for which the path is being traced.
+     * @return The path from the start node to the vertex in a string format.
      */
-    private String getPath(int[] parent, int currentVertex, int startVertex, int distance) {
-        if (distance == Integer.MAX_VALUE) {
+    private String getPath(ShortestPathTree tree, int currentVertex) {
+        int[] path = tree.getPath(currentVertex);
+        if (path.length == 0) {
             return "No path available";
         }
-        if (currentVertex == startVertex) {
-            return nodeNames[startVertex];
-        }
-        if (parent[currentVertex] == -1) {
-            return "No path available";
+        StringBuilder route = new StringBuilder(nodeNames[path[0]]);
+        for (int i = 1; i < path.length; i++) {
+            route.append(" → ").append(nodeNames[path[i]]);
         }
-        return getPath(parent, parent[currentVertex], startVertex, distance) + " → " + nodeNames[currentVertex];
+        return route.toString();
     }
     /**
      * Prints the entire graph structure, showing each node and its adjacent neighbors.
@@ -317,14 +371,13 @@ public class Graph {
     public void printGraph() {
         System.out.println("Graph Structure:");
         System.out.println("---------------");
+        CompactGraph csr = compile();
         for (int i = 0; i < numberOfNodes; i++) {
             System.out.printf("%-2s → ", nodeNames[i]);
-            ArrayList<Node> neighbors = adj.get(i);
 
-            for (int j = 0; j < neighbors.size(); j++) {
-                Node neighbor = neighbors.get(j);
-                System.out.printf("%s(%d)", nodeNames[neighbor.dest], neighbor.weight);
-                if (j < neighbors.size() - 1) {
+            for (int e = csr.edgeStart(i); e < csr.edgeEnd(i); e++) {
+                System.out.printf("%s(%d)", nodeNames[csr.edgeTarget(e)], csr.edgeWeight(e));
+                if (e < csr.edgeEnd(i) - 1) {
                     System.out.print(", ");
                 }
             }
@@ -340,10 +393,24 @@ public class Graph {
     public String getNodeName(int node){
         return nodeNames[node];
     }
+    /**
+     * Returns the neighbours of a vertex as Node objects.
+     *
+     * The list is materialized from the CSR arrays on every call, so hot loops should
+     * iterate {@link #compile()} directly instead.
+     *
+     * @param vertex The vertex.
+     * @return The adjacent nodes, or null if the vertex does not exist.
+     */
     public ArrayList<Node> getAdjacentNodes(int vertex) {
-        if (vertex >= 0 && vertex < numberOfNodes) {
-            return adj.get(vertex);
+        if (vertex < 0 || vertex >= numberOfNodes) {
+            return null;
+        }
+        CompactGraph csr = compile();
+        ArrayList<Node> adjacentNodes = new ArrayList<>(Math.max(1, csr.getDegree(vertex)));
+        for (int e = csr.edgeStart(vertex); e < csr.edgeEnd(vertex); e++) {
+            adjacentNodes.add(new Node(csr.edgeTarget(e), csr.edgeWeight(e)));
         }
-        return null;
+        return adjacentNodes;
     }
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+package de.thab.algo.abstractdatastructures;
+
+import java.util.Arrays;
+
+/**
+ * Collects the edges of a graph in primitive arrays and turns them into a {@link CompactGraph}.
+ *
+ * Memory is proportional to the number of edges: nothing is allocated per vertex until
+ * {@link #build(String[])}, which first counts the out-degree of every vertex and then
+ * places each edge directly into its final CSR slot.
+ *
+ * Every added edge gets an id equal to its insertion index. The ids stay valid across
+ * rebuilds and can be read back from the compiled graph with {@link CompactGraph#edgeId(int)}.
+ */
+public class GraphBuilder {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int numberOfNodes;
+    private int[] sources;
+    private int[] targets;
+    private int[] weights;
+    private int numberOfEdges;
+    private boolean mergeParallelEdges;
+    // edges that merge with their parallels even without mergeParallelEdges, null if none
+    private boolean[] mergeable;
+    // ring of the edges between the same pair of vertices, by id, as of the last merging build
+    private int[] parallel;
+
+    /**
+     * Constructs a GraphBuilder for the specified number of vertices.
+     *
+     * @param numberOfNodes The number of vertices in the graph.
+     */
+    public GraphBuilder(int numberOfNodes) {
+        this(numberOfNodes, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a GraphBuilder with room for the expected number of edges.
+     *
+     * @param numberOfNodes The number of vertices in the graph.
+     * @param expectedEdges The number of edges to reserve space for.
+     */
+    public GraphBuilder(int numberOfNodes, int expectedEdges) {
+        if (numberOfNodes < 0 || expectedEdges < 0) {
+            throw new IllegalArgumentException("Sizes must be non-negative");
+        }
+        this.numberOfNodes = numberOfNodes;
+        int capacity = Math.max(1, expectedEdges);
+        sources = new int[capacity];
+        targets = new int[capacity];
+        weights = new int[capacity];
+    }
+
+    /**
+     * Adds a directed edge.
+     *
+     * @param src    The source vertex.
+     * @param dest   The destination vertex.
+     * @param weight The weight of the edge.
+     * @return The id of the new edge.
+     */
+    public int addEdge(int src, int dest, int weight) {
+        if (src < 0 || src >= numberOfNodes || dest < 0 || dest >= numberOfNodes) {
+            throw new IndexOutOfBoundsException("Edge " + src + " -> " + dest + ", Nodes: " + numberOfNodes);
+        }
+        if (numberOfEdges == sources.length) {
+            resize();
+        }
+        sources[numberOfEdges] = src;
+        targets[numberOfEdges] = dest;
+        weights[numberOfEdges] = weight;
+        return numberOfEdges++;
+    }
+
+    /**
+     * Adds a directed edge that is collapsed with the other edges added this way between the
+     * same pair of vertices when building, keeping the lightest. Edges added with
+     * {@link #addEdge(int, int, int)} are left as they are.
+     *
+     * @param src    The source vertex.
+     * @param dest   The destination vertex.
+     * @param weight The weight of the edge.
+     * @return The id of the new edge.
+     */
+    public int addMergeableEdge(int src, int dest, int weight) {
+        int id = addEdge(src, dest, weight);
+        if (mergeable == null) {
+            mergeable = new boolean[sources.length];
+        }
+        mergeable[id] = true;
+        return id;
+    }
+
+    /**
+     * Changes the weight of an edge. The change shows in the next {@link #build(String[])}.
+     *
+     * @param edgeId The id of the edge.
+     * @param weight The new weight.
+     */
+    public void setWeight(int edgeId, int weight) {
+        if (edgeId < 0 || edgeId >= numberOfEdges) {
+            throw new IndexOutOfBoundsException("Edge id " + edgeId + ", Edges: " + numberOfEdges);
+        }
+        weights[edgeId] = weight;
+    }
+
+    /**
+     * Chooses whether parallel edges between the same pair of vertices are collapsed when
+     * building, keeping only the one with the smallest weight.
+     *
+     * @param merge true to collapse parallel edges.
+     */
+    public void setMergeParallelEdges(boolean merge) {
+        this.mergeParallelEdges = merge;
+    }
+
+    /**
+     * Walks the edges that {@link #build(String[])} merged into one: starting from any of them,
+     * repeated calls visit every edge between the same pair of vertices and return to the start.
+     * Changes to one of them, e.g. {@link #setWeight(int, int)}, can so be applied to all, which
+     * keeps them in effect whichever one the next build keeps.
+     *
+     * @param edgeId The id of an edge that existed at the last build.
+     * @return The id of the next parallel edge, edgeId itself if it has none.
+     */
+    public int nextParallelEdge(int edgeId) {
+        return parallel == null || edgeId >= parallel.length ? edgeId : parallel[edgeId];
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public int getNumberOfEdges() {
+        return numberOfEdges;
+    }
+
+    /**
+     * Builds the CSR representation in two passes over the edge list.
+     *
+     * The first pass counts the out-degree of every vertex, the second places each edge
+     * into its slot. Edges of the same vertex keep their insertion order.
+     *
+     * @param nodeNames An array of node names.
+     * @return The compiled graph.
+     */
+    public CompactGraph build(String[] nodeNames) {
+        int[] offsets = new int[numberOfNodes + 1];
+        for (int i = 0; i < numberOfEdges; i++) {
+            offsets[sources[i] + 1]++;
+        }
+        for (int v = 0; v < numberOfNodes; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] cursor = Arrays.copyOf(offsets, numberOfNodes);
+        int[] csrTargets = new int[numberOfEdges];
+        int[] csrWeights = new int[numberOfEdges];
+        int[] csrIds = new int[numberOfEdges];
+        for (int i = 0; i < numberOfEdges; i++) {
+            int slot = cursor[sources[i]]++;
+            csrTargets[slot] = targets[i];
+            csrWeights[slot] = weights[i];
+            csrIds[slot] = i;
+        }
+
+        if (mergeParallelEdges || mergeable != null) {
+            return mergeParallel(nodeNames, offsets, csrTargets, csrWeights, csrIds);
+        }
+        return new CompactGraph(nodeNames, offsets, csrTargets, csrWeights, csrIds);
+    }
+
+    /**
+     * Collapses parallel edges row by row, all of them or only the mergeable ones, keeping
+     * the lightest edge at the position of the first one. A stamp array remembers the slot
+     * each target was last seen at in the current row, so the whole pass is linear in the
+     * number of edges.
+     */
+    private CompactGraph mergeParallel(String[] nodeNames, int[] offsets, int[] csrTargets,
+                                       int[] csrWeights, int[] csrIds) {
+        int[] seenInRow = new int[numberOfNodes];
+        int[] seenAt = new int[numberOfNodes];
+        // first id seen per kept slot, the entry point of its ring of parallel edges
+        int[] firstId = new int[csrIds.length];
+        parallel = new int[numberOfEdges];
+        for (int i = 0; i < numberOfEdges; i++) {
+            parallel[i] = i;
+        }
+        Arrays.fill(seenInRow, -1);
+
+        int write = 0;
+        int rowStart = 0;
+        for (int v = 0; v < numberOfNodes; v++) {
+            int rowEnd = offsets[v + 1];
+            offsets[v] = write;
+            for (int e = rowStart; e < rowEnd; e++) {
+                int dest = csrTargets[e];
+                boolean merges = mergeParallelEdges || mergeable[csrIds[e]];
+                if (merges && seenInRow[dest] == v) {
+                    int kept = seenAt[dest];
+                    int first = firstId[kept];
+                    parallel[csrIds[e]] = parallel[first];
+                    parallel[first] = csrIds[e];
+                    if (csrWeights[e] < csrWeights[kept]) {
+                        csrWeights[kept] = csrWeights[e];
+                        csrIds[kept] = csrIds[e];
+                    }
+                    continue;
+                }
+                if (merges) {
+                    seenInRow[dest] = v;
+                    seenAt[dest] = write;
+                }
+                firstId[write] = csrIds[e];
+                csrTargets[write] = dest;
+                csrWeights[write] = csrWeights[e];
+                csrIds[write] = csrIds[e];
+                write++;
+            }
+            rowStart = rowEnd;
+        }
+        offsets[numberOfNodes] = write;
+
+        if (write == csrTargets.length) {
+            return new CompactGraph(nodeNames, offsets, csrTargets, csrWeights, csrIds);
+        }
+        return new CompactGraph(nodeNames, offsets, Arrays.copyOf(csrTargets, write),
+                Arrays.copyOf(csrWeights, write), Arrays.copyOf(csrIds, write));
+    }
+
+    private void resize() {
+        int newCapacity = sources.length * 2;
+        sources = Arrays.copyOf(sources, newCapacity);
+        targets = Arrays.copyOf(targets, newCapacity);
+        weights = Arrays.copyOf(weights, newCapacity);
+        if (mergeable != null) {
+            mergeable = Arrays.copyOf(mergeable, newCapacity);
+        }
+    }
+}
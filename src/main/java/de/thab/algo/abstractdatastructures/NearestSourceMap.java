@@ -0,0 +1,88 @@
+package de.thab.algo.abstractdatastructures;
+
+/**
+ * Result of a multi-source shortest path search: for every vertex the nearest of a set of
+ * sources, the distance to it and the next vertex on the way.
+ *
+ * The sources partition the graph into regions, one per source, each holding the vertices
+ * that source is nearest to. Unlike a {@link ShortestPathTree} the map owns its arrays,
+ * because a full assignment is usually kept around rather than read once.
+ */
+public final class NearestSourceMap {
+    private final int[] nearest;
+    private final int[] distances;
+    private final int[] parents;
+    private final int settledCount;
+
+    NearestSourceMap(int[] nearest, int[] distances, int[] parents, int settledCount) {
+        this.nearest = nearest;
+        this.distances = distances;
+        this.parents = parents;
+        this.settledCount = settledCount;
+    }
+
+    public int getNumberOfNodes() {
+        return nearest.length;
+    }
+
+    /**
+     * @return The number of vertices the search settled.
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @return The nearest source of the vertex, or -1 if no source is connected to it.
+     */
+    public int getSource(int vertex) {
+        return nearest[vertex];
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @return The distance between the vertex and its nearest source, or Integer.MAX_VALUE.
+     */
+    public int getDistance(int vertex) {
+        return distances[vertex];
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @return The next vertex towards the nearest source, or -1 for a source or an
+     *         unreachable vertex.
+     */
+    public int getParent(int vertex) {
+        return parents[vertex];
+    }
+
+    public boolean isReachable(int vertex) {
+        return nearest[vertex] != -1;
+    }
+
+    /**
+     * Follows the parent pointers from a vertex to its nearest source.
+     *
+     * For a search over the reverse graph this is the route from the vertex to the source
+     * in travel order; for a forward search it is the route from the source read backwards.
+     *
+     * @param vertex The vertex.
+     * @return The vertices from the vertex to its nearest source, or an empty array if no
+     *         source is connected to it.
+     */
+    public int[] getPathToSource(int vertex) {
+        if (!isReachable(vertex)) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int v = vertex; parents[v] != -1; v = parents[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = vertex, i = 0; i < length; v = parents[v], i++) {
+            path[i] = v;
+        }
+        return path;
+    }
+}
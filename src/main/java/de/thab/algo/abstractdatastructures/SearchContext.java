@@ -0,0 +1,167 @@
+package de.thab.algo.abstractdatastructures;
+
+import de.thab.algo.abstractdatastructures.queue.CustomPriorityQueue;
+
+import java.util.Arrays;
+
+/**
+ * Reusable workspace for shortest path searches.
+ *
+ * A search needs a distance, a parent and a settled flag per vertex plus a priority queue.
+ * Instead of allocating and initialising these for every query, a context keeps them
+ * between searches and stamps every entry with the epoch of the search that wrote it.
+ * Starting a new search only increments the epoch, which invalidates all entries at once,
+ * so the cost of a query depends on the vertices it touches rather than on the graph size.
+ *
+ * A context must only be used by one thread at a time; {@link #current(int)} and
+ * {@link #backward(int)} hand out contexts per thread.
+ */
+public final class SearchContext {
+    private static final ThreadLocal<SearchContext> CURRENT =
+            ThreadLocal.withInitial(() -> new SearchContext(0));
+    private static final ThreadLocal<SearchContext> BACKWARD =
+            ThreadLocal.withInitial(() -> new SearchContext(0));
+
+    private int capacity;
+    private int[] distances;
+    private int[] parents;
+    // epoch in which distances/parents of a vertex were last written
+    private int[] reachedStamps;
+    // epoch in which a vertex was last settled
+    private int[] settledStamps;
+    private int epoch;
+    private CustomPriorityQueue queue;
+
+    /**
+     * Constructs a SearchContext for graphs with up to the specified number of vertices.
+     *
+     * @param numberOfNodes The number of vertices.
+     */
+    public SearchContext(int numberOfNodes) {
+        allocate(numberOfNodes);
+    }
+
+    /**
+     * Returns the context of the calling thread, grown to the specified number of vertices.
+     *
+     * @param numberOfNodes The number of vertices of the graph to search.
+     * @return The context of the calling thread.
+     */
+    public static SearchContext current(int numberOfNodes) {
+        SearchContext context = CURRENT.get();
+        context.ensureCapacity(numberOfNodes);
+        return context;
+    }
+
+    /**
+     * Returns a second context of the calling thread for the backward half of a
+     * bidirectional search, which runs alongside {@link #current(int)}.
+     *
+     * @param numberOfNodes The number of vertices of the graph to search.
+     * @return The backward context of the calling thread.
+     */
+    public static SearchContext backward(int numberOfNodes) {
+        SearchContext context = BACKWARD.get();
+        context.ensureCapacity(numberOfNodes);
+        return context;
+    }
+
+    /**
+     * Grows the arrays if the graph has more vertices than the context can hold.
+     *
+     * @param numberOfNodes The number of vertices.
+     */
+    public void ensureCapacity(int numberOfNodes) {
+        if (numberOfNodes > capacity) {
+            allocate(numberOfNodes);
+        }
+    }
+
+    private void allocate(int numberOfNodes) {
+        capacity = numberOfNodes;
+        distances = new int[numberOfNodes];
+        parents = new int[numberOfNodes];
+        reachedStamps = new int[numberOfNodes];
+        settledStamps = new int[numberOfNodes];
+        queue = new CustomPriorityQueue(numberOfNodes);
+    }
+
+    /**
+     * Starts a new search, invalidating every result of the previous one in O(1).
+     *
+     * @return The epoch of the new search.
+     */
+    public int start() {
+        queue.clear();
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            // stamps would become ambiguous after wrapping, so clear them once
+            Arrays.fill(reachedStamps, 0);
+            Arrays.fill(settledStamps, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    public int getEpoch() {
+        return epoch;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public CustomPriorityQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @return The tentative distance of the vertex, or Integer.MAX_VALUE if it was not reached.
+     */
+    public int getDistance(int vertex) {
+        return reachedStamps[vertex] == epoch ? distances[vertex] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @return The parent of the vertex on its tentative path, or -1 if there is none.
+     */
+    public int getParent(int vertex) {
+        return reachedStamps[vertex] == epoch ? parents[vertex] : -1;
+    }
+
+    /**
+     * Records a new tentative distance and parent for a vertex.
+     *
+     * @param vertex   The vertex.
+     * @param distance The new distance.
+     * @param parent   The predecessor on the path, or -1 for a source.
+     */
+    public void update(int vertex, int distance, int parent) {
+        distances[vertex] = distance;
+        parents[vertex] = parent;
+        reachedStamps[vertex] = epoch;
+    }
+
+    public boolean isSettled(int vertex) {
+        return settledStamps[vertex] == epoch;
+    }
+
+    public void settle(int vertex) {
+        settledStamps[vertex] = epoch;
+    }
+
+    /**
+     * Wraps the current search result in a tree that reads directly from this context.
+     *
+     * @param source        The source of the search.
+     * @param numberOfNodes The number of vertices of the searched graph.
+     * @param settledCount  The number of vertices the search settled.
+     * @return The shortest path tree, valid until the next call of {@link #start()}.
+     */
+    public ShortestPathTree toTree(int source, int numberOfNodes, int settledCount) {
+        return new ShortestPathTree(source, numberOfNodes, settledCount,
+                distances, parents, reachedStamps, epoch, this);
+    }
+}
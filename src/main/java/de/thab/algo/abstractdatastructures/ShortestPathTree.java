@@ -0,0 +1,155 @@
+package de.thab.algo.abstractdatastructures;
+
+import java.util.Arrays;
+
+/**
+ * Result of a single-source shortest path search: the distance and the parent of every
+ * vertex reached from the source.
+ *
+ * A tree returned by a search reads straight from the {@link SearchContext} that computed
+ * it, so producing it costs nothing. It stays valid until the context starts its next
+ * search; use {@link #detach()} to keep a result beyond that.
+ */
+public final class ShortestPathTree {
+    private final int source;
+    private final int numberOfNodes;
+    private final int settledCount;
+    private final int[] distances;
+    private final int[] parents;
+    // null for a detached tree, otherwise the epoch stamps of the owning context
+    private final int[] stamps;
+    private final int epoch;
+    private final SearchContext context;
+
+    ShortestPathTree(int source, int numberOfNodes, int settledCount, int[] distances, int[] parents,
+                     int[] stamps, int epoch, SearchContext context) {
+        this.source = source;
+        this.numberOfNodes = numberOfNodes;
+        this.settledCount = settledCount;
+        this.distances = distances;
+        this.parents = parents;
+        this.stamps = stamps;
+        this.epoch = epoch;
+        this.context = context;
+    }
+
+    /**
+     * Creates a detached tree from copies of the given arrays, e.g. for results that are
+     * maintained outside a {@link SearchContext}.
+     *
+     * @param source    The source vertex.
+     * @param distances The distance of every vertex, Integer.MAX_VALUE if unreachable.
+     * @param parents   The parent of every vertex, -1 for the source and unreachable ones.
+     * @return The tree.
+     */
+    public static ShortestPathTree of(int source, int[] distances, int[] parents) {
+        int reached = 0;
+        for (int distance : distances) {
+            if (distance != Integer.MAX_VALUE) {
+                reached++;
+            }
+        }
+        return new ShortestPathTree(source, distances.length, reached,
+                distances.clone(), parents.clone(), null, 0, null);
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    /**
+     * @return The number of vertices the search settled.
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * @return true if the tree can still be read.
+     */
+    public boolean isValid() {
+        return context == null || context.getEpoch() == epoch;
+    }
+
+    private void checkValid() {
+        if (!isValid()) {
+            throw new IllegalStateException("Shortest path tree was overwritten by a newer search");
+        }
+    }
+
+    private boolean isReached(int vertex) {
+        return stamps == null || stamps[vertex] == epoch;
+    }
+
+    /**
+     * @param vertex The destination vertex.
+     * @return The shortest distance from the source, or Integer.MAX_VALUE if unreachable.
+     */
+    public int getDistance(int vertex) {
+        checkValid();
+        return isReached(vertex) ? distances[vertex] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @return The predecessor of the vertex on its shortest path, or -1 if there is none.
+     */
+    public int getParent(int vertex) {
+        checkValid();
+        return isReached(vertex) ? parents[vertex] : -1;
+    }
+
+    public boolean isReachable(int vertex) {
+        return getDistance(vertex) != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Walks the parent pointers back from the destination to the source.
+     *
+     * @param vertex The destination vertex.
+     * @return The vertices of the path from the source to the destination, or an empty
+     *         array if the destination is unreachable.
+     */
+    public int[] getPath(int vertex) {
+        if (!isReachable(vertex)) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int v = vertex; v != source; v = getParent(v)) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = vertex, i = length - 1; i >= 0; v = getParent(v), i--) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Copies the tree into its own arrays so it no longer depends on the search context.
+     *
+     * @return A tree that stays valid independently of later searches.
+     */
+    public ShortestPathTree detach() {
+        if (context == null) {
+            return this;
+        }
+        checkValid();
+        int[] ownDistances = new int[numberOfNodes];
+        int[] ownParents = new int[numberOfNodes];
+        Arrays.fill(ownDistances, Integer.MAX_VALUE);
+        Arrays.fill(ownParents, -1);
+        for (int v = 0; v < numberOfNodes; v++) {
+            if (stamps[v] == epoch) {
+                ownDistances[v] = distances[v];
+                ownParents[v] = parents[v];
+            }
+        }
+        return new ShortestPathTree(source, numberOfNodes, settledCount,
+                ownDistances, ownParents, null, 0, null);
+    }
+}
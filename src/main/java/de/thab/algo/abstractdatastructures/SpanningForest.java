@@ -0,0 +1,284 @@
+package de.thab.algo.abstractdatastructures;
+
+import java.util.Arrays;
+
+/**
+ * Result of a minimum spanning tree computation: the chosen edges, their total weight and
+ * the number of trees.
+ *
+ * If the graph is disconnected the result is a spanning forest with one tree per
+ * connected component, so isolated parts of a damaged network are still covered.
+ *
+ * Besides the edge list the forest offers a rooted view: the parent of every node, the
+ * weight of the edge to it and the children of every node in CSR form. The rooted view
+ * is built in O(V) on first use, or taken over directly from algorithms that grow trees
+ * from a root such as Prim's.
+ */
+public class SpanningForest {
+    private final int numberOfNodes;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] weights;
+    private final int numberOfEdges;
+    private final long totalWeight;
+
+    // rooted view, null until first needed
+    private int[] parent;
+    private int[] parentWeight;
+    private int[] roots;
+    // children of node v at children[childOffsets[v] .. childOffsets[v + 1]), ascending
+    private int[] childOffsets;
+    private int[] children;
+
+    /**
+     * Constructs a SpanningForest from its edges.
+     *
+     * @param numberOfNodes The number of nodes of the graph.
+     * @param sources       The first end of every edge.
+     * @param targets       The second end of every edge.
+     * @param weights       The weight of every edge.
+     * @param numberOfEdges The number of edges used from the arrays.
+     */
+    public SpanningForest(int numberOfNodes, int[] sources, int[] targets, int[] weights, int numberOfEdges) {
+        this.numberOfNodes = numberOfNodes;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        this.numberOfEdges = numberOfEdges;
+        long total = 0;
+        for (int i = 0; i < numberOfEdges; i++) {
+            total += weights[i];
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Constructs a SpanningForest from a parent array in O(V).
+     *
+     * @param parent       The parent of every node, -1 for roots.
+     * @param parentWeight The weight of the edge from every node to its parent.
+     * @param roots        The roots, in the order their trees should be traversed.
+     * @return The spanning forest.
+     */
+    public static SpanningForest fromParents(int[] parent, int[] parentWeight, int[] roots) {
+        int n = parent.length;
+        int count = n - roots.length;
+        int[] sources = new int[count];
+        int[] targets = new int[count];
+        int[] weights = new int[count];
+        int i = 0;
+        for (int v = 0; v < n; v++) {
+            if (parent[v] != -1) {
+                sources[i] = parent[v];
+                targets[i] = v;
+                weights[i] = parentWeight[v];
+                i++;
+            }
+        }
+        SpanningForest forest = new SpanningForest(n, sources, targets, weights, count);
+        forest.parent = parent;
+        forest.parentWeight = parentWeight;
+        forest.roots = roots;
+        forest.buildChildren();
+        return forest;
+    }
+
+    /**
+     * Roots every tree at its smallest node with a breadth-first search over the edges.
+     */
+    private void ensureRooted() {
+        if (parent != null) {
+            return;
+        }
+        // undirected adjacency of the forest edges
+        int[] offsets = new int[numberOfNodes + 1];
+        for (int i = 0; i < numberOfEdges; i++) {
+            offsets[sources[i] + 1]++;
+            offsets[targets[i] + 1]++;
+        }
+        for (int v = 0; v < numberOfNodes; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] cursor = Arrays.copyOf(offsets, numberOfNodes);
+        int[] neighbours = new int[2 * numberOfEdges];
+        int[] edgeOf = new int[2 * numberOfEdges];
+        for (int i = 0; i < numberOfEdges; i++) {
+            neighbours[cursor[sources[i]]] = targets[i];
+            edgeOf[cursor[sources[i]]++] = i;
+            neighbours[cursor[targets[i]]] = sources[i];
+            edgeOf[cursor[targets[i]]++] = i;
+        }
+
+        int[] rootedParent = new int[numberOfNodes];
+        int[] rootedWeight = new int[numberOfNodes];
+        boolean[] visited = new boolean[numberOfNodes];
+        int[] rootList = new int[getNumberOfTrees()];
+        int rootCount = 0;
+        int[] queue = new int[numberOfNodes];
+        for (int r = 0; r < numberOfNodes; r++) {
+            if (visited[r]) {
+                continue;
+            }
+            rootList[rootCount++] = r;
+            rootedParent[r] = -1;
+            visited[r] = true;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = r;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                    int v = neighbours[k];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        rootedParent[v] = u;
+                        rootedWeight[v] = weights[edgeOf[k]];
+                        queue[tail++] = v;
+                    }
+                }
+            }
+        }
+        parent = rootedParent;
+        parentWeight = rootedWeight;
+        roots = rootList;
+        buildChildren();
+    }
+
+    /**
+     * Groups the nodes by parent with a counting sort, so children come out ascending.
+     */
+    private void buildChildren() {
+        childOffsets = new int[numberOfNodes + 1];
+        for (int v = 0; v < numberOfNodes; v++) {
+            if (parent[v] != -1) {
+                childOffsets[parent[v] + 1]++;
+            }
+        }
+        for (int v = 0; v < numberOfNodes; v++) {
+            childOffsets[v + 1] += childOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(childOffsets, numberOfNodes);
+        children = new int[numberOfEdges];
+        for (int v = 0; v < numberOfNodes; v++) {
+            if (parent[v] != -1) {
+                children[cursor[parent[v]]++] = v;
+            }
+        }
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public int getNumberOfEdges() {
+        return numberOfEdges;
+    }
+
+    public int getSource(int edge) {
+        return sources[edge];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public int getWeight(int edge) {
+        return weights[edge];
+    }
+
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return The number of trees, one per connected component of the graph.
+     */
+    public int getNumberOfTrees() {
+        return numberOfNodes - numberOfEdges;
+    }
+
+    /**
+     * @return true if the forest is a single tree spanning every node.
+     */
+    public boolean isSpanningTree() {
+        return getNumberOfTrees() <= 1;
+    }
+
+    /**
+     * @param node The node.
+     * @return The parent of the node in the rooted forest, or -1 for a root.
+     */
+    public int getParent(int node) {
+        ensureRooted();
+        return parent[node];
+    }
+
+    /**
+     * @param node The node.
+     * @return The weight of the edge between the node and its parent, 0 for a root.
+     */
+    public int getParentWeight(int node) {
+        ensureRooted();
+        return parent[node] == -1 ? 0 : parentWeight[node];
+    }
+
+    /**
+     * @return The roots of the trees, in traversal order.
+     */
+    public int[] getRoots() {
+        ensureRooted();
+        return roots.clone();
+    }
+
+    /**
+     * @param node The node.
+     * @return The index of the node's first child, see {@link #getChild(int)}.
+     */
+    public int childStart(int node) {
+        ensureRooted();
+        return childOffsets[node];
+    }
+
+    /**
+     * @param node The node.
+     * @return The index one past the node's last child.
+     */
+    public int childEnd(int node) {
+        ensureRooted();
+        return childOffsets[node + 1];
+    }
+
+    /**
+     * @param index An index between {@link #childStart(int)} and {@link #childEnd(int)}.
+     * @return The child at that index.
+     */
+    public int getChild(int index) {
+        return children[index];
+    }
+
+    /**
+     * Lists the nodes in depth-first preorder, tree by tree in the order of the roots and
+     * children in ascending order. An explicit stack is used, so long chains cannot
+     * overflow the call stack.
+     *
+     * @return Every node once, each parent before its children.
+     */
+    public int[] preorder() {
+        ensureRooted();
+        int[] order = new int[numberOfNodes];
+        int[] stack = new int[numberOfNodes];
+        int count = 0;
+        for (int root : roots) {
+            int size = 0;
+            stack[size++] = root;
+            while (size > 0) {
+                int u = stack[--size];
+                order[count++] = u;
+                for (int k = childOffsets[u + 1] - 1; k >= childOffsets[u]; k--) {
+                    stack[size++] = children[k];
+                }
+            }
+        }
+        return order;
+    }
+}
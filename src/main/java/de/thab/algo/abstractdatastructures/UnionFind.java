@@ -0,0 +1,106 @@
+package de.thab.algo.abstractdatastructures;
+
+/**
+ * Disjoint-set forest over the elements 0 .. n-1.
+ *
+ * Sets are merged by size and {@link #find(int)} compresses the path it walks, so any
+ * sequence of operations runs in near-constant amortised time per operation.
+ */
+public class UnionFind {
+    private final int[] parent;
+    // number of elements in the set, only meaningful for roots
+    private final int[] size;
+    private int count;
+
+    /**
+     * Constructs a UnionFind in which every element is its own set.
+     *
+     * @param numberOfElements The number of elements.
+     */
+    public UnionFind(int numberOfElements) {
+        parent = new int[numberOfElements];
+        size = new int[numberOfElements];
+        for (int i = 0; i < numberOfElements; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        count = numberOfElements;
+    }
+
+    /**
+     * Finds the representative of the set containing an element and points every element
+     * on the way directly at it.
+     *
+     * @param element The element.
+     * @return The representative of its set.
+     */
+    public int find(int element) {
+        int root = element;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[element] != root) {
+            int next = parent[element];
+            parent[element] = root;
+            element = next;
+        }
+        return root;
+    }
+
+    /**
+     * Finds the representative of the set containing an element without modifying the
+     * structure, so several threads may call it while no set is being merged.
+     *
+     * @param element The element.
+     * @return The representative of its set.
+     */
+    public int findReadOnly(int element) {
+        while (parent[element] != element) {
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the sets containing two elements, attaching the smaller set to the larger.
+     *
+     * @param a The first element.
+     * @param b The second element.
+     * @return true if the elements were in different sets.
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        count--;
+        return true;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * @param element The element.
+     * @return The number of elements in the set containing the element.
+     */
+    public int size(int element) {
+        return size[find(element)];
+    }
+
+    /**
+     * @return The number of disjoint sets.
+     */
+    public int count() {
+        return count;
+    }
+}
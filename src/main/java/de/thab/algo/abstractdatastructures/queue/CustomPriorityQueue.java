@@ -31,6 +31,17 @@ public class CustomPriorityQueue {
         }
     }
 
+    /**
+     * Adds the vertex with the given key, or lowers its key if it is already queued.
+     *
+     * @param vertex The vertex to be added or updated.
+     * @param key The priority key associated with the vertex.
+     * @throws IllegalStateException if the vertex is new and the priority queue is full.
+     */
+    public void enqueueOrDecreaseKey(int vertex, int key) {
+        minHeap.insertOrDecreaseKey(vertex, key);
+    }
+
     /**
      * Removes and returns the element with the highest priority (lowest key).
      *
@@ -44,6 +55,22 @@ public class CustomPriorityQueue {
         return minHeap.extractMin();
     }
 
+    /**
+     * Removes the element with the highest priority and returns only its vertex.
+     *
+     * Unlike {@link #dequeue()} this allocates nothing, so graph algorithms should use it
+     * in their main loop.
+     *
+     * @return The vertex with the lowest key.
+     * @throws NoSuchElementException if the priority queue is empty.
+     */
+    public int dequeueVertex() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Priority Queue is empty");
+        }
+        return minHeap.extractMinVertex();
+    }
+
     /**
      * Returns, but does not remove, the element with the highest priority.
      *
@@ -57,13 +84,37 @@ public class CustomPriorityQueue {
         return minHeap.getMin();
     }
 
+    /**
+     * Returns, but does not remove, the lowest key in the queue.
+     *
+     * @return The lowest key.
+     * @throws NoSuchElementException if the priority queue is empty.
+     */
+    public int peekKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Priority Queue is empty");
+        }
+        return minHeap.getMinKey();
+    }
+
     /**
      * Checks if the priority queue is empty.
      *
      * @return true if the queue is empty, false otherwise.
      */
     public boolean isEmpty() {
-        return minHeap.current_heap_size == 0;
+        return minHeap.size() == 0;
+    }
+
+    /**
+     * Removes all elements so the queue can be reused for another search.
+     */
+    public void clear() {
+        minHeap.clear();
+    }
+
+    public int size() {
+        return minHeap.size();
     }
 
     /**
@@ -75,4 +126,12 @@ public class CustomPriorityQueue {
     public void decreaseKey(int vertex, int newKey) {
         minHeap.decreaseKey(vertex, newKey);
     }
+
+    /**
+     * @param vertex The vertex.
+     * @return true if the vertex is currently queued.
+     */
+    public boolean contains(int vertex) {
+        return minHeap.contains(vertex);
+    }
 }
@@ -4,6 +4,11 @@ import java.util.Arrays;
 
 /**
  * A min-heap implementation for use in graph algorithms.
+ *
+ * The heap is indexed by vertex and stored in parallel primitive arrays: the vertex and
+ * key of every heap slot, and the heap slot of every vertex. Inserting, decreasing a key
+ * and extracting the minimum vertex allocate nothing, so the heap can sit in the hot loop
+ * of Dijkstra's and Prim's algorithm.
  */
 public class MinHeap {
     /**
@@ -38,43 +43,29 @@ public class MinHeap {
         }
     }
 
-    public HeapNode[] heapArray;
-    public int capacity;
-    public int current_heap_size;
+    private final int capacity;
+    private int currentHeapSize;
+    // vertex and key of every heap slot
+    private final int[] heapVertices;
+    private final int[] heapKeys;
     // Store vertex to index mapping for O(1) lookups
-    private int[] vertexToIndex;
+    private final int[] vertexToIndex;
 
     /**
      * Constructs a MinHeap with the given capacity.
      *
-     * @param n The capacity of the heap.
+     * @param n The capacity of the heap, vertices must lie in {@code [0, n)}.
      */
     public MinHeap(int n) {
         capacity = n;
-        heapArray = new HeapNode[capacity];
+        heapVertices = new int[capacity];
+        heapKeys = new int[capacity];
         vertexToIndex = new int[n];
-        current_heap_size = 0;
+        currentHeapSize = 0;
 
         Arrays.fill(vertexToIndex, -1);
     }
 
-    /**
-     * Swaps two nodes in the heap and updates their indices.
-     *
-     * @param arr The heap array.
-     * @param a Index of the first node.
-     * @param b Index of the second node.
-     */
-    private void swap(HeapNode[] arr, int a, int b) {
-        // Update vertex to index mapping
-        vertexToIndex[arr[a].vertex] = b;
-        vertexToIndex[arr[b].vertex] = a;
-
-        // Swap heap nodes
-        HeapNode temp = arr[a];
-        arr[a] = arr[b];
-        arr[b] = temp;
-    }
     /**
      * @param key The index of a node.
      * @return The index of the parent node.
@@ -92,11 +83,12 @@ public class MinHeap {
     }
 
     /**
-     * @param key The index of a node.
-     * @return The index of the right child.
+     * Places a vertex with its key into a heap slot and updates the index mapping.
      */
-    private int right(int key) {
-        return 2 * key + 2;
+    private void place(int index, int vertex, int key) {
+        heapVertices[index] = vertex;
+        heapKeys[index] = key;
+        vertexToIndex[vertex] = index;
     }
 
     /**
@@ -107,19 +99,11 @@ public class MinHeap {
      * @return true if insertion was successful, false if heap is full.
      */
     public boolean insertKey(int vertex, int key) {
-        if (current_heap_size == capacity) {
+        if (currentHeapSize == capacity) {
             return false;
         }
 
-        int i = current_heap_size;
-        heapArray[i] = new HeapNode(vertex, key);
-        vertexToIndex[vertex] = i;
-        current_heap_size++;
-
-        while (i != 0 && heapArray[i].key < heapArray[parent(i)].key) {
-            swap(heapArray, i, parent(i));
-            i = parent(i);
-        }
+        siftUp(currentHeapSize++, vertex, key);
         return true;
     }
 
@@ -136,20 +120,53 @@ public class MinHeap {
         }
         int i = vertexToIndex[vertex];
 
-        if (i < 0 || i >= current_heap_size) {
+        if (i < 0 || i >= currentHeapSize) {
             throw new IllegalArgumentException("Invalid vertex");
         }
 
-        if (new_val > heapArray[i].key) {
+        if (new_val > heapKeys[i]) {
             throw new IllegalArgumentException("New key is greater than current key");
         }
 
-        heapArray[i].key = new_val;
+        siftUp(i, vertex, new_val);
+    }
+
+    /**
+     * Inserts the vertex if it is not in the heap yet, otherwise lowers its key.
+     *
+     * This lets graph searches add vertices only when they are first discovered instead of
+     * filling the heap with every vertex up front.
+     *
+     * @param vertex The vertex number.
+     * @param key The new key, which must not be greater than the current key of the vertex.
+     * @return true if the vertex was inserted, false if its key was decreased.
+     * @throws IllegalStateException if the vertex is new and the heap is full.
+     */
+    public boolean insertOrDecreaseKey(int vertex, int key) {
+        if (vertexToIndex[vertex] != -1) {
+            decreaseKey(vertex, key);
+            return false;
+        }
+        if (!insertKey(vertex, key)) {
+            throw new IllegalStateException("Heap is full");
+        }
+        return true;
+    }
 
-        while (i != 0 && heapArray[i].key < heapArray[parent(i)].key) {
-            swap(heapArray, i, parent(i));
-            i = parent(i);
+    /**
+     * Moves the hole at index {@code i} towards the root until {@code key} fits, then
+     * places the vertex there. Parents are shifted down instead of swapped.
+     */
+    private void siftUp(int i, int vertex, int key) {
+        while (i != 0) {
+            int p = parent(i);
+            if (heapKeys[p] <= key) {
+                break;
+            }
+            place(i, heapVertices[p], heapKeys[p]);
+            i = p;
         }
+        place(i, vertex, key);
     }
 
     /**
@@ -157,11 +174,31 @@ public class MinHeap {
      * @throws IllegalStateException if the heap is empty.
      */
     public HeapNode getMin() {
-        if (current_heap_size == 0) {
+        return new HeapNode(getMinVertex(), heapKeys[0]);
+    }
+
+    /**
+     * @return The vertex with the minimum key.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public int getMinVertex() {
+        if (currentHeapSize == 0) {
             throw new IllegalStateException("Heap is empty");
         }
-        return heapArray[0];
+        return heapVertices[0];
     }
+
+    /**
+     * @return The minimum key.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public int getMinKey() {
+        if (currentHeapSize == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return heapKeys[0];
+    }
+
     /**
      * Extracts and returns the minimum element from the heap.
      *
@@ -169,45 +206,86 @@ public class MinHeap {
      * @throws IllegalStateException if the heap is empty.
      */
     public HeapNode extractMin() {
-        if (current_heap_size <= 0) {
+        int key = getMinKey();
+        return new HeapNode(extractMinVertex(), key);
+    }
+
+    /**
+     * Extracts the vertex with the minimum key without allocating.
+     *
+     * @return The vertex that was at the root of the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public int extractMinVertex() {
+        if (currentHeapSize <= 0) {
             throw new IllegalStateException("Heap is empty");
         }
 
-        HeapNode root = heapArray[0];
-        vertexToIndex[root.vertex] = -1; // Mark as removed
+        int root = heapVertices[0];
+        vertexToIndex[root] = -1; // Mark as removed
 
-        if (current_heap_size > 1) {
-            heapArray[0] = heapArray[current_heap_size - 1];
-            vertexToIndex[heapArray[0].vertex] = 0;
-        }
-
-        current_heap_size--;
-        if (current_heap_size > 0) {
-            MinHeapify(0);
+        currentHeapSize--;
+        if (currentHeapSize > 0) {
+            siftDown(0, heapVertices[currentHeapSize], heapKeys[currentHeapSize]);
         }
 
         return root;
     }
+
     /**
      * Maintains the min heap property(top to bottom and left to right) starting from the given index.
      *
-     * @param i The index from which to start heapifying.
+     * Iteratively moves the smaller child up into the hole at {@code i} until
+     * {@code key} fits, then places the vertex there.
+     *
+     * @param i      The index from which to start heapifying.
+     * @param vertex The vertex to place.
+     * @param key    The key of the vertex.
      */
-    private void MinHeapify(int i) {
+    private void siftDown(int i, int vertex, int key) {
         int l = left(i);
-        int r = right(i);
-
-        int smallest = i;
-        if (l < current_heap_size && heapArray[l].key < heapArray[smallest].key) {
-            smallest = l;
-        }
-        if (r < current_heap_size && heapArray[r].key < heapArray[smallest].key) {
-            smallest = r;
+        while (l < currentHeapSize) {
+            int smallest = l;
+            int r = l + 1;
+            if (r < currentHeapSize && heapKeys[r] < heapKeys[l]) {
+                smallest = r;
+            }
+            if (heapKeys[smallest] >= key) {
+                break;
+            }
+            place(i, heapVertices[smallest], heapKeys[smallest]);
+            i = smallest;
+            l = left(i);
         }
+        place(i, vertex, key);
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @return true if the vertex is currently in the heap.
+     */
+    public boolean contains(int vertex) {
+        return vertexToIndex[vertex] != -1;
+    }
 
-        if (smallest != i) {
-            swap(heapArray, i, smallest);
-            MinHeapify(smallest);
+    /**
+     * Removes all vertices from the heap.
+     *
+     * Only the slots that are still occupied are reset, so clearing a heap after a search
+     * that stopped early costs O(size) rather than O(capacity).
+     */
+    public void clear() {
+        for (int i = 0; i < currentHeapSize; i++) {
+            vertexToIndex[heapVertices[i]] = -1;
         }
+        currentHeapSize = 0;
+    }
+
+    public int size() {
+        return currentHeapSize;
+    }
+
+    public int getCapacity() {
+        return capacity;
     }
 }
@@ -9,14 +9,34 @@ import de.thab.algo.abstractdatastructures.*;
 public class ClusteringHelper {
 
     private final Graph graph;
+    private final DistanceMatrix distances;
 
+    /**
+     * Constructs a ClusteringHelper and computes the network distances between all nodes.
+     *
+     * @param graph The graph to cluster.
+     */
     public ClusteringHelper(Graph graph) {
+        this(graph, DistanceMatrix.compute(graph));
+    }
+
+    /**
+     * Constructs a ClusteringHelper that reuses an existing distance matrix.
+     *
+     * @param graph     The graph to cluster.
+     * @param distances The distance matrix of the graph.
+     */
+    public ClusteringHelper(Graph graph, DistanceMatrix distances) {
         this.graph = graph;
+        this.distances = distances;
     }
 
     /**
      * Implements the K-Medoids clustering algorithm.
      *
+     * Nodes are compared by their shortest network distance, not only by direct roads.
+     * A node that no medoid can reach joins the first medoid's cluster.
+     *
      * @param k             Number of clusters.
      * @param maxIterations Maximum number of iterations.
      * @return A map of clusters with medoids as keys and lists of node indices as values.
@@ -41,8 +61,8 @@ public class ClusteringHelper {
                 int minDistance = Integer.MAX_VALUE;
 
                 for (int medoid : medoids) {
-                    int distance = graph.getWeight(i, medoid);
-                    if (distance < minDistance) {
+                    int distance = distances.distance(i, medoid);
+                    if (nearestMedoid == -1 || distance < minDistance) {
                         minDistance = distance;
                         nearestMedoid = medoid;
                     }
@@ -65,12 +85,13 @@ public class ClusteringHelper {
                 }
 
                 int bestMedoid = medoid;
-                int minCost = Integer.MAX_VALUE;
+                long minCost = Long.MAX_VALUE;
 
                 for (int candidate : cluster) {
-                    int cost = 0;
+                    // summed in long, unreachable members count as Integer.MAX_VALUE each
+                    long cost = 0;
                     for (int node : cluster) {
-                        cost += graph.getWeight(candidate, node);
+                        cost += distances.distance(candidate, node);
                     }
 
                     if (cost < minCost) {
@@ -0,0 +1,178 @@
+package de.thab.algo.functionFour;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.Graph;
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Shortest network distances between all pairs of nodes.
+ *
+ * The matrix is filled by one Dijkstra search per source node, spread over the threads
+ * of a {@link ForkJoinPool}; every worker thread reuses its own {@link SearchContext}.
+ * Distances are stored row by row in a flat int array, or in a memory-mapped temporary
+ * file when the matrix would not comfortably fit on the heap. Either way a lookup is
+ * O(1).
+ */
+public class DistanceMatrix {
+    // matrices with more entries than this are kept in a memory-mapped file (128 MB of ints)
+    private static final long IN_MEMORY_LIMIT = 1L << 25;
+
+    private final int numberOfNodes;
+    // row-major distances for matrices on the heap, null when mapped
+    private final int[] distances;
+    // mapped segments of rowsPerSegment rows each, null when on the heap
+    private final IntBuffer[] segments;
+    private final int rowsPerSegment;
+
+    private DistanceMatrix(int numberOfNodes, int[] distances, IntBuffer[] segments, int rowsPerSegment) {
+        this.numberOfNodes = numberOfNodes;
+        this.distances = distances;
+        this.segments = segments;
+        this.rowsPerSegment = rowsPerSegment;
+    }
+
+    /**
+     * Computes the distance matrix of a graph on the common fork/join pool.
+     *
+     * @param graph The graph.
+     * @return The distance matrix.
+     */
+    public static DistanceMatrix compute(Graph graph) {
+        long entries = (long) graph.getNumberOfNodes() * graph.getNumberOfNodes();
+        try {
+            return compute(graph, ForkJoinPool.commonPool(), entries > IN_MEMORY_LIMIT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map distance matrix", e);
+        }
+    }
+
+    /**
+     * Computes the distance matrix of a graph.
+     *
+     * @param graph     The graph.
+     * @param pool      The pool to run the searches in.
+     * @param mapToFile true to keep the matrix in a memory-mapped temporary file.
+     * @return The distance matrix.
+     * @throws IOException if the temporary file cannot be created or mapped.
+     */
+    public static DistanceMatrix compute(Graph graph, ForkJoinPool pool, boolean mapToFile) throws IOException {
+        CompactGraph csr = graph.compile();
+        int n = csr.getNumberOfNodes();
+        if (!mapToFile && (long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Distance matrix of " + n + " nodes does not fit in an array");
+        }
+        DistanceMatrix matrix = mapToFile ? mapped(n) : new DistanceMatrix(n, new int[n * n], null, n);
+        int batch = Math.max(1, n / (pool.getParallelism() * 8));
+        pool.invoke(new RowTask(csr, matrix, 0, n, batch));
+        return matrix;
+    }
+
+    /**
+     * Creates a matrix backed by a temporary file. The file is deleted when the channel is
+     * closed; the mappings keep the data alive until they are garbage collected.
+     */
+    private static DistanceMatrix mapped(int n) throws IOException {
+        long rowBytes = (long) n * Integer.BYTES;
+        int rowsPerSegment = (int) Math.max(1, Math.min(n, Integer.MAX_VALUE / Math.max(1, rowBytes)));
+        int segmentCount = n == 0 ? 0 : (n + rowsPerSegment - 1) / rowsPerSegment;
+        IntBuffer[] segments = new IntBuffer[segmentCount];
+
+        Path file = Files.createTempFile("distances", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE)) {
+            for (int s = 0; s < segmentCount; s++) {
+                int rows = Math.min(rowsPerSegment, n - s * rowsPerSegment);
+                segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, s * rowsPerSegment * rowBytes,
+                                rows * rowBytes)
+                        .order(ByteOrder.nativeOrder())
+                        .asIntBuffer();
+            }
+        }
+        return new DistanceMatrix(n, null, segments, rowsPerSegment);
+    }
+
+    /**
+     * Splits a range of source nodes until it is small enough to search sequentially.
+     */
+    @SuppressWarnings("serial") // tasks are never serialized
+    private static final class RowTask extends RecursiveAction {
+        private final CompactGraph csr;
+        private final DistanceMatrix matrix;
+        private final int from;
+        private final int to;
+        private final int batch;
+
+        RowTask(CompactGraph csr, DistanceMatrix matrix, int from, int to, int batch) {
+            this.csr = csr;
+            this.matrix = matrix;
+            this.from = from;
+            this.to = to;
+            this.batch = batch;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > batch) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(csr, matrix, from, middle, batch),
+                        new RowTask(csr, matrix, middle, to, batch));
+                return;
+            }
+            int n = csr.getNumberOfNodes();
+            SearchContext context = SearchContext.current(n);
+            int[] row = new int[n];
+            for (int source = from; source < to; source++) {
+                ShortestPathTree tree = csr.dijkstra(source, context);
+                for (int v = 0; v < n; v++) {
+                    row[v] = tree.getDistance(v);
+                }
+                matrix.setRow(source, row);
+            }
+        }
+    }
+
+    private void setRow(int source, int[] row) {
+        if (distances != null) {
+            System.arraycopy(row, 0, distances, source * numberOfNodes, numberOfNodes);
+        } else {
+            // absolute bulk put on a duplicate, so concurrent rows do not share a position
+            IntBuffer segment = segments[source / rowsPerSegment].duplicate();
+            segment.put((source % rowsPerSegment) * numberOfNodes, row);
+        }
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    /**
+     * @return true if the matrix is kept in a memory-mapped file instead of on the heap.
+     */
+    public boolean isMapped() {
+        return segments != null;
+    }
+
+    /**
+     * @param u The start node.
+     * @param v The destination node.
+     * @return The shortest distance from u to v, or Integer.MAX_VALUE if v is unreachable.
+     */
+    public int distance(int u, int v) {
+        if (distances != null) {
+            return distances[u * numberOfNodes + v];
+        }
+        return segments[u / rowsPerSegment].get((u % rowsPerSegment) * numberOfNodes + v);
+    }
+}
@@ -0,0 +1,163 @@
+package de.thab.algo.functionOne;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.ConcurrentUnionFind;
+import de.thab.algo.abstractdatastructures.SpanningForest;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel Borůvka algorithm for minimum spanning forests.
+ *
+ * Every round each component picks its cheapest edge to another component, and all picked
+ * edges are added at once. The number of components at least halves per round, so there
+ * are O(log V) rounds, and both steps of a round run in parallel:
+ * <ol>
+ *   <li>Fork/join tasks over ranges of the remaining edges lower the cheapest edge of both
+ *       end components with a compare-and-set on an {@link AtomicLongArray}.</li>
+ *   <li>The picked edges are merged with a {@link ConcurrentUnionFind}.</li>
+ * </ol>
+ * Edges are compared by the key weight &lt;&lt; 32 | slot, a strict total order, so the
+ * picked edges never close a cycle and the result equals the one of Kruskal's algorithm up
+ * to ties. Edges inside a component are dropped after every round.
+ */
+public final class Boruvka {
+    // edges per fork/join leaf task
+    private static final int BATCH = 1 << 12;
+
+    private Boruvka() {
+    }
+
+    /**
+     * Computes a minimum spanning forest on the common fork/join pool.
+     *
+     * @param graph The graph, every edge is treated as undirected.
+     * @return The minimum spanning forest.
+     */
+    public static SpanningForest minimumSpanningForest(CompactGraph graph) {
+        return minimumSpanningForest(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes a minimum spanning forest.
+     *
+     * @param graph The graph, every edge is treated as undirected.
+     * @param pool  The pool to run the rounds in.
+     * @return The minimum spanning forest.
+     */
+    public static SpanningForest minimumSpanningForest(CompactGraph graph, ForkJoinPool pool) {
+        int n = graph.getNumberOfNodes();
+        int slots = graph.getNumberOfEdges();
+        int[] slotSource = new int[slots];
+        for (int u = 0; u < n; u++) {
+            Arrays.fill(slotSource, graph.edgeStart(u), graph.edgeEnd(u), u);
+        }
+
+        ConcurrentUnionFind components = new ConcurrentUnionFind(n);
+        AtomicLongArray cheapest = new AtomicLongArray(n);
+        long[] picked = new long[Math.max(0, n - 1)];
+        AtomicInteger pickedCount = new AtomicInteger();
+
+        int[] active = pool.submit(() -> IntStream.range(0, slots).parallel()
+                .filter(e -> slotSource[e] != graph.edgeTarget(e))
+                .toArray()).join();
+        while (active.length > 0) {
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(v -> cheapest.set(v, Long.MAX_VALUE))).join();
+            pool.invoke(new CheapestEdgeTask(graph, slotSource, active, 0, active.length, components, cheapest));
+
+            int before = pickedCount.get();
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(v -> {
+                long key = cheapest.get(v);
+                if (key == Long.MAX_VALUE) {
+                    return;
+                }
+                int e = (int) key;
+                // both ends may have picked the same edge, only the first union adds it
+                if (components.union(slotSource[e], graph.edgeTarget(e))) {
+                    picked[pickedCount.getAndIncrement()] = key;
+                }
+            })).join();
+            if (pickedCount.get() == before) {
+                break;
+            }
+
+            int[] remaining = active;
+            active = pool.submit(() -> Arrays.stream(remaining).parallel()
+                    .filter(e -> components.find(slotSource[e]) != components.find(graph.edgeTarget(e)))
+                    .toArray()).join();
+        }
+
+        // report the edges by increasing weight, independent of thread timing
+        int count = pickedCount.get();
+        long[] keys = Arrays.copyOf(picked, count);
+        Arrays.parallelSort(keys);
+        int[] sources = new int[count];
+        int[] targets = new int[count];
+        int[] weights = new int[count];
+        for (int i = 0; i < count; i++) {
+            int e = (int) keys[i];
+            sources[i] = slotSource[e];
+            targets[i] = graph.edgeTarget(e);
+            weights[i] = graph.edgeWeight(e);
+        }
+        return new SpanningForest(n, sources, targets, weights, count);
+    }
+
+    /**
+     * Finds the cheapest outgoing edge of every component over a range of edges.
+     */
+    @SuppressWarnings("serial") // tasks are never serialized
+    private static final class CheapestEdgeTask extends RecursiveAction {
+        private final CompactGraph graph;
+        private final int[] slotSource;
+        private final int[] active;
+        private final int from;
+        private final int to;
+        private final ConcurrentUnionFind components;
+        private final AtomicLongArray cheapest;
+
+        CheapestEdgeTask(CompactGraph graph, int[] slotSource, int[] active, int from, int to,
+                         ConcurrentUnionFind components, AtomicLongArray cheapest) {
+            this.graph = graph;
+            this.slotSource = slotSource;
+            this.active = active;
+            this.from = from;
+            this.to = to;
+            this.components = components;
+            this.cheapest = cheapest;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CheapestEdgeTask(graph, slotSource, active, from, middle, components, cheapest),
+                        new CheapestEdgeTask(graph, slotSource, active, middle, to, components, cheapest));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int e = active[i];
+                int rootU = components.find(slotSource[e]);
+                int rootV = components.find(graph.edgeTarget(e));
+                if (rootU == rootV) {
+                    continue;
+                }
+                long key = (long) graph.edgeWeight(e) << 32 | e;
+                lower(rootU, key);
+                lower(rootV, key);
+            }
+        }
+
+        private void lower(int component, long key) {
+            long current = cheapest.get(component);
+            while (key < current && !cheapest.compareAndSet(component, current, key)) {
+                current = cheapest.get(component);
+            }
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package de.thab.algo.functionOne;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.SpanningForest;
+import de.thab.algo.abstractdatastructures.UnionFind;
+
+import java.util.Arrays;
+
+/**
+ * Minimum spanning forest that is kept up to date while links fail, get repaired or
+ * change their cost.
+ *
+ * Every update touches only the part of the forest it affects:
+ * <ul>
+ *   <li>A new or cheaper link closes a cycle with the tree path between its ends. The
+ *       most expensive edge on that cycle leaves the forest.</li>
+ *   <li>A failed or more expensive tree link splits its tree in two. The cheapest link
+ *       across that cut is the replacement. Only the smaller half is enumerated, together
+ *       with its incident links.</li>
+ * </ul>
+ * Both cases use one search that grows from both ends of the link at the same pace and
+ * stops as soon as the two sides meet or the smaller side runs out of nodes, so the cost
+ * depends on the smaller tree rather than on the whole network.
+ *
+ * Links are undirected and identified by the id returned when they are added; parallel
+ * links between the same nodes are allowed.
+ */
+public class DynamicSpanningForest {
+    private final int numberOfNodes;
+
+    // link endpoints and costs by id
+    private int[] from;
+    private int[] to;
+    private int[] cost;
+    private boolean[] alive;
+    private boolean[] inForest;
+    private int numberOfLinks;
+
+    // ids of the live links at every node, dead ids are dropped while scanning
+    private final int[][] incident;
+    private final int[] incidentCount;
+    // ids of the forest links at every node
+    private final int[][] forestLinks;
+    private final int[] forestCount;
+    private long totalCost;
+    private int forestSize;
+
+    // search state for the two sides, stamped so nothing has to be cleared between searches
+    private final int[] stampA;
+    private final int[] stampB;
+    private final int[] viaA;
+    private final int[] viaB;
+    private final int[] queueA;
+    private final int[] queueB;
+    private int epoch;
+    // nodes reached by the side that ran out in the last search, at the front of its queue
+    private int[] exhaustedQueue;
+    private int exhaustedSize;
+    private int[] exhaustedStamp;
+
+    /**
+     * Constructs an empty forest over the given number of nodes.
+     *
+     * @param numberOfNodes The number of nodes.
+     */
+    public DynamicSpanningForest(int numberOfNodes) {
+        this.numberOfNodes = numberOfNodes;
+        from = new int[16];
+        to = new int[16];
+        cost = new int[16];
+        alive = new boolean[16];
+        inForest = new boolean[16];
+        incident = new int[numberOfNodes][];
+        incidentCount = new int[numberOfNodes];
+        forestLinks = new int[numberOfNodes][];
+        forestCount = new int[numberOfNodes];
+        for (int v = 0; v < numberOfNodes; v++) {
+            incident[v] = new int[2];
+            forestLinks[v] = new int[2];
+        }
+        stampA = new int[numberOfNodes];
+        stampB = new int[numberOfNodes];
+        viaA = new int[numberOfNodes];
+        viaB = new int[numberOfNodes];
+        queueA = new int[numberOfNodes];
+        queueB = new int[numberOfNodes];
+    }
+
+    /**
+     * Builds the forest of an undirected graph. Every pair of opposite directed edges, as
+     * created by Graph.addEdge, becomes one link; the initial forest is found with Kruskal's
+     * algorithm.
+     *
+     * @param graph The graph.
+     * @return The dynamic forest; link ids follow the order of the edges with source &lt; target.
+     */
+    public static DynamicSpanningForest of(CompactGraph graph) {
+        int n = graph.getNumberOfNodes();
+        DynamicSpanningForest forest = new DynamicSpanningForest(n);
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.edgeTarget(e);
+                if (u < v) {
+                    forest.insertLink(u, v, graph.edgeWeight(e));
+                }
+            }
+        }
+
+        long[] keys = new long[forest.numberOfLinks];
+        for (int id = 0; id < forest.numberOfLinks; id++) {
+            keys[id] = (long) forest.cost[id] << 32 | id;
+        }
+        Arrays.sort(keys);
+        UnionFind components = new UnionFind(n);
+        for (long key : keys) {
+            int id = (int) key;
+            if (components.union(forest.from[id], forest.to[id])) {
+                forest.link(id);
+            }
+        }
+        return forest;
+    }
+
+    /**
+     * Adds a link, for example a repaired or newly built one.
+     *
+     * @param u      The first node.
+     * @param v      The second node.
+     * @param weight The cost of the link.
+     * @return The id of the new link.
+     */
+    public int addLink(int u, int v, int weight) {
+        int id = insertLink(u, v, weight);
+        if (u != v) {
+            offer(id);
+        }
+        return id;
+    }
+
+    /**
+     * Removes a link, for example after it failed.
+     *
+     * @param id The id of the link.
+     * @return true if the forest changed.
+     */
+    public boolean removeLink(int id) {
+        checkAlive(id);
+        alive[id] = false;
+        if (!inForest[id]) {
+            return false;
+        }
+        cut(id);
+        reconnect(from[id], to[id]);
+        return true;
+    }
+
+    /**
+     * Changes the cost of a link.
+     *
+     * @param id     The id of the link.
+     * @param weight The new cost.
+     * @return true if the set of forest links changed.
+     */
+    public boolean setCost(int id, int weight) {
+        checkAlive(id);
+        int old = cost[id];
+        if (inForest[id]) {
+            totalCost += weight - old;
+            cost[id] = weight;
+            if (weight <= old) {
+                return false;
+            }
+            // a dearer forest link may now lose against a link across its cut
+            cut(id);
+            return reconnect(from[id], to[id]) != id;
+        }
+        cost[id] = weight;
+        return weight < old && offer(id);
+    }
+
+    /**
+     * @param u The first node.
+     * @param v The second node.
+     * @return The id of the cheapest live link between the nodes, or -1 if there is none.
+     */
+    public int findLink(int u, int v) {
+        int best = -1;
+        for (int i = 0; i < incidentCount[u]; i++) {
+            int id = incident[u][i];
+            if (alive[id] && other(id, u) == v && (best == -1 || cost[id] < cost[best])) {
+                best = id;
+            }
+        }
+        return best;
+    }
+
+    private void checkAlive(int id) {
+        if (id < 0 || id >= numberOfLinks || !alive[id]) {
+            throw new IllegalArgumentException("No live link with id " + id);
+        }
+    }
+
+    private int insertLink(int u, int v, int weight) {
+        if (u < 0 || u >= numberOfNodes || v < 0 || v >= numberOfNodes) {
+            throw new IndexOutOfBoundsException("Link " + u + " - " + v + " outside 0.." + (numberOfNodes - 1));
+        }
+        if (numberOfLinks == from.length) {
+            int capacity = numberOfLinks * 2;
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            cost = Arrays.copyOf(cost, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+            inForest = Arrays.copyOf(inForest, capacity);
+        }
+        int id = numberOfLinks++;
+        from[id] = u;
+        to[id] = v;
+        cost[id] = weight;
+        alive[id] = true;
+        append(incident, incidentCount, u, id);
+        if (u != v) {
+            append(incident, incidentCount, v, id);
+        }
+        return id;
+    }
+
+    private int other(int id, int node) {
+        return from[id] == node ? to[id] : from[id];
+    }
+
+    private static void append(int[][] lists, int[] counts, int node, int id) {
+        if (counts[node] == lists[node].length) {
+            lists[node] = Arrays.copyOf(lists[node], counts[node] * 2);
+        }
+        lists[node][counts[node]++] = id;
+    }
+
+    private void link(int id) {
+        inForest[id] = true;
+        append(forestLinks, forestCount, from[id], id);
+        append(forestLinks, forestCount, to[id], id);
+        totalCost += cost[id];
+        forestSize++;
+    }
+
+    private void cut(int id) {
+        inForest[id] = false;
+        removeForestLink(from[id], id);
+        removeForestLink(to[id], id);
+        totalCost -= cost[id];
+        forestSize--;
+    }
+
+    private void removeForestLink(int node, int id) {
+        int[] list = forestLinks[node];
+        for (int i = 0; i < forestCount[node]; i++) {
+            if (list[i] == id) {
+                list[i] = list[--forestCount[node]];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Offers a non-forest link: it joins two trees, or replaces the most expensive link on
+     * the cycle it closes if it is cheaper.
+     *
+     * @return true if the forest changed.
+     */
+    private boolean offer(int id) {
+        int meeting = search(from[id], to[id]);
+        if (meeting == -1) {
+            link(id);
+            return true;
+        }
+        int heaviest = -1;
+        for (int v = meeting; v != from[id]; v = other(viaA[v], v)) {
+            if (heaviest == -1 || cost[viaA[v]] > cost[heaviest]) {
+                heaviest = viaA[v];
+            }
+        }
+        for (int v = meeting; v != to[id]; v = other(viaB[v], v)) {
+            if (heaviest == -1 || cost[viaB[v]] > cost[heaviest]) {
+                heaviest = viaB[v];
+            }
+        }
+        if (heaviest == -1 || cost[heaviest] <= cost[id]) {
+            return false;
+        }
+        cut(heaviest);
+        link(id);
+        return true;
+    }
+
+    /**
+     * Links the cheapest live link across the cut between the trees of two nodes that were
+     * just separated, scanning the links of the smaller tree only.
+     *
+     * @return The id of the link added, or -1 if the trees stay apart.
+     */
+    private int reconnect(int u, int v) {
+        search(u, v);
+        int best = -1;
+        for (int i = 0; i < exhaustedSize; i++) {
+            int node = exhaustedQueue[i];
+            int[] list = incident[node];
+            int kept = 0;
+            for (int k = 0; k < incidentCount[node]; k++) {
+                int id = list[k];
+                if (!alive[id]) {
+                    continue;
+                }
+                list[kept++] = id;
+                if (!inForest[id] && exhaustedStamp[other(id, node)] != epoch
+                        && (best == -1 || cost[id] < cost[best])) {
+                    best = id;
+                }
+            }
+            incidentCount[node] = kept;
+        }
+        if (best != -1) {
+            link(best);
+        }
+        return best;
+    }
+
+    /**
+     * Searches the forest from two nodes at once, one node per side in turn.
+     *
+     * @return The node where both sides met, or -1 if one side ran out first. In that
+     *         case the nodes of the exhausted side form its whole tree.
+     */
+    private int search(int a, int b) {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stampA, 0);
+            Arrays.fill(stampB, 0);
+            epoch = 1;
+        }
+        int headA = 0;
+        int tailA = 0;
+        int headB = 0;
+        int tailB = 0;
+        queueA[tailA++] = a;
+        stampA[a] = epoch;
+        queueB[tailB++] = b;
+        stampB[b] = epoch;
+        if (a == b) {
+            return a;
+        }
+        while (true) {
+            if (headA == tailA) {
+                exhausted(queueA, tailA, stampA);
+                return -1;
+            }
+            int u = queueA[headA++];
+            for (int i = 0; i < forestCount[u]; i++) {
+                int id = forestLinks[u][i];
+                int w = other(id, u);
+                if (stampA[w] != epoch) {
+                    stampA[w] = epoch;
+                    viaA[w] = id;
+                    queueA[tailA++] = w;
+                    if (stampB[w] == epoch) {
+                        return w;
+                    }
+                }
+            }
+
+            if (headB == tailB) {
+                exhausted(queueB, tailB, stampB);
+                return -1;
+            }
+            u = queueB[headB++];
+            for (int i = 0; i < forestCount[u]; i++) {
+                int id = forestLinks[u][i];
+                int w = other(id, u);
+                if (stampB[w] != epoch) {
+                    stampB[w] = epoch;
+                    viaB[w] = id;
+                    queueB[tailB++] = w;
+                    if (stampA[w] == epoch) {
+                        return w;
+                    }
+                }
+            }
+        }
+    }
+
+    private void exhausted(int[] queue, int size, int[] stamp) {
+        exhaustedQueue = queue;
+        exhaustedSize = size;
+        exhaustedStamp = stamp;
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public long getTotalCost() {
+        return totalCost;
+    }
+
+    /**
+     * @return The number of trees, one per connected part of the network.
+     */
+    public int getNumberOfTrees() {
+        return numberOfNodes - forestSize;
+    }
+
+    public boolean isInForest(int id) {
+        return id >= 0 && id < numberOfLinks && alive[id] && inForest[id];
+    }
+
+    public int getCost(int id) {
+        return cost[id];
+    }
+
+    /**
+     * Copies the current forest into a {@link SpanningForest}.
+     *
+     * @return The forest links as they are now.
+     */
+    public SpanningForest snapshot() {
+        int[] sources = new int[forestSize];
+        int[] targets = new int[forestSize];
+        int[] weights = new int[forestSize];
+        int count = 0;
+        for (int id = 0; id < numberOfLinks; id++) {
+            if (alive[id] && inForest[id]) {
+                sources[count] = from[id];
+                targets[count] = to[id];
+                weights[count] = cost[id];
+                count++;
+            }
+        }
+        return new SpanningForest(numberOfNodes, sources, targets, weights, count);
+    }
+}
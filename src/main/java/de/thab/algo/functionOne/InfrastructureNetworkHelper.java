@@ -1,8 +1,11 @@
 package de.thab.algo.functionOne;
 
 import de.thab.algo.abstractdatastructures.Graph;
+import de.thab.algo.abstractdatastructures.SpanningForest;
+import de.thab.algo.abstractdatastructures.UnionFind;
 import de.thab.algo.graphreader.GraphReader;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Scanner;
 /**
  * The {@code InfrastructureNetworkHelper} class is a utility for managing an infrastructure network.
@@ -67,7 +70,7 @@ public class InfrastructureNetworkHelper {
 
 
             // Calculate and display results
-            displayResults(graph, infrastructureNodes);
+            displayResults(graph, infrastructureNodes, scanner);
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
         }
@@ -82,20 +85,195 @@ public class InfrastructureNetworkHelper {
     }
     /**
      * Displays the results of the Minimum Spanning Tree calculation and priority node information.
-     * The MST calculation now starts from the first priority node set by the user, or from node 0 if no priority node is set.
+     * Prim's algorithm starts from the first priority node set by the user, or from node 0 if no
+     * priority node is set. Kruskal, Filter-Kruskal and Boruvka need no start node and return a spanning
+     * forest if the network is disconnected. The Steiner tree connects only the priority node and the
+     * critical sites entered by the user.
      *
      * @param graph The Graph object representing the infrastructure network
      * @param infrastructureNodes Array of InfrastructureNode objects containing node information
+     * @param scanner Scanner object for reading the algorithm choice
      */
-    private static void displayResults(Graph graph, InfrastructureNode[] infrastructureNodes) {
+    private static void displayResults(Graph graph, InfrastructureNode[] infrastructureNodes, Scanner scanner) {
+        System.out.println("\nSelect algorithm (1: Prim, 2: Kruskal, 3: Filter-Kruskal, 4: Parallel Boruvka, "
+                + "5: Steiner tree over critical sites):");
+        int algorithm = scanner.nextInt();
+        scanner.nextLine(); // Consume newline
+
         System.out.println("\nCalculating Minimum Spanning Tree for Disaster Recovery:");
-        // for now i am just passing the first index as starting node
-        // to do : find out the bug in case if i wanna start with 1 or higher
-        int startNode = findFirstPriorityNode(infrastructureNodes);
-        graph.primMST(startNode);
+        if (algorithm == 5) {
+            int[] terminals = readCriticalSites(infrastructureNodes, scanner);
+            printSteinerTree(SteinerTree.mehlhorn(graph.compile(), terminals), infrastructureNodes, terminals);
+        } else {
+            SpanningForest plan = switch (algorithm) {
+                case 2 -> Kruskal.kruskal(graph.compile());
+                case 3 -> Kruskal.filterKruskal(graph.compile());
+                case 4 -> Boruvka.minimumSpanningForest(graph.compile());
+                default -> graph.primMST(findFirstPriorityNode(infrastructureNodes));
+            };
+            graph.printMST(plan);
+            printVitalLinks(MstSensitivity.analyze(graph.compile(), plan), infrastructureNodes);
+        }
 
         // Print additional information about priority nodes
         printPriorityNodesInfo(infrastructureNodes);
+
+        applyDamageReports(graph, infrastructureNodes, scanner);
+    }
+
+    /**
+     * Reads damage reports line by line and keeps the repair plan up to date without recomputing
+     * it from scratch. Nodes are given by their number:
+     * <ul>
+     *   <li>{@code fail A B} - the cheapest link between A and B has failed</li>
+     *   <li>{@code repair A B cost} - a link between A and B is (re)built with the given cost</li>
+     *   <li>{@code cost A B cost} - the cheapest link between A and B now has the given cost</li>
+     * </ul>
+     * An empty line or {@code done} finishes the input.
+     *
+     * @param graph The Graph object representing the infrastructure network
+     * @param nodes Array of InfrastructureNode objects containing node information
+     * @param scanner Scanner object for reading the reports
+     */
+    private static void applyDamageReports(Graph graph, InfrastructureNode[] nodes, Scanner scanner) {
+        DynamicSpanningForest plan = DynamicSpanningForest.of(graph.compile());
+        System.out.println("\nEnter damage reports (fail A B | repair A B cost | cost A B cost), empty line to finish:");
+        while (scanner.hasNextLine()) {
+            String line = scanner.nextLine().trim();
+            if (line.isEmpty() || line.equalsIgnoreCase("done")) {
+                return;
+            }
+            String[] parts = line.split("\\s+");
+            try {
+                int u = Integer.parseInt(parts[1]) - 1;
+                int v = Integer.parseInt(parts[2]) - 1;
+                if (u < 0 || u >= nodes.length || v < 0 || v >= nodes.length) {
+                    System.out.println("Invalid node number. Skipping.");
+                    continue;
+                }
+                boolean changed;
+                switch (parts[0].toLowerCase()) {
+                    // a new link only changes the plan if it enters the forest
+                    case "repair" -> changed = plan.isInForest(plan.addLink(u, v, Integer.parseInt(parts[3])));
+                    case "fail", "cost" -> {
+                        int link = plan.findLink(u, v);
+                        if (link == -1) {
+                            System.out.println("No link between " + nodes[u].name + " and " + nodes[v].name + ". Skipping.");
+                            continue;
+                        }
+                        changed = parts[0].equalsIgnoreCase("fail")
+                                ? plan.removeLink(link)
+                                : plan.setCost(link, Integer.parseInt(parts[3]));
+                    }
+                    default -> {
+                        System.out.println("Unknown report: " + parts[0] + ". Skipping.");
+                        continue;
+                    }
+                }
+                if (changed) {
+                    System.out.println("Repair plan changed:");
+                    graph.printMST(plan.snapshot());
+                } else {
+                    System.out.println("Repair plan unchanged, total weight: " + plan.getTotalCost());
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                System.out.println("Invalid report: " + line + ". Skipping.");
+            }
+        }
+    }
+
+    /**
+     * Prints the tree links whose failure would hurt the network most, together with the
+     * cheapest link that could take over.
+     *
+     * @param sensitivity The replacement links of the printed plan
+     * @param nodes Array of InfrastructureNode objects containing node information
+     */
+    private static void printVitalLinks(MstSensitivity sensitivity, InfrastructureNode[] nodes) {
+        System.out.println("\nMost Vital Links:");
+        SpanningForest plan = sensitivity.getForest();
+        for (int child : sensitivity.mostVitalLinks(5)) {
+            String link = nodes[plan.getParent(child)].name + " -- " + nodes[child].name;
+            if (sensitivity.hasReplacement(child)) {
+                System.out.printf("%s \treplaced by %s -- %s (%d), +%d%n", link,
+                        nodes[sensitivity.getReplacementSource(child)].name,
+                        nodes[sensitivity.getReplacementTarget(child)].name,
+                        sensitivity.getReplacementWeight(child), sensitivity.getCostIncrease(child));
+            } else {
+                System.out.println(link + " \tno replacement, failure splits the network");
+            }
+        }
+    }
+
+    /**
+     * Reads the critical sites to connect as one line of node numbers. Priority nodes are always
+     * included.
+     *
+     * @param nodes Array of InfrastructureNode objects
+     * @param scanner Scanner object for reading user input
+     * @return The indices of the sites to connect
+     */
+    private static int[] readCriticalSites(InfrastructureNode[] nodes, Scanner scanner) {
+        System.out.println("Enter the numbers of the critical sites to connect, separated by spaces:");
+        String[] parts = scanner.nextLine().trim().split("[\\s,]+");
+        int[] sites = new int[parts.length + nodes.length];
+        int count = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i].isPriority) {
+                sites[count++] = i;
+            }
+        }
+        for (String part : parts) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            try {
+                int input = Integer.parseInt(part);
+                if (input > 0 && input <= nodes.length) {
+                    sites[count++] = input - 1;
+                } else {
+                    System.out.println("Invalid node number: " + input + ". Skipping.");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid node number: " + part + ". Skipping.");
+            }
+        }
+        return Arrays.copyOf(sites, count);
+    }
+
+    /**
+     * Prints the edges of a Steiner tree and its total weight.
+     *
+     * @param tree The Steiner tree
+     * @param nodes Array of InfrastructureNode objects containing node information
+     * @param terminals The sites the tree connects
+     */
+    private static void printSteinerTree(SpanningForest tree, InfrastructureNode[] nodes, int[] terminals) {
+        System.out.println("\n=== Steiner Tree over Critical Sites ===");
+        System.out.println("Edge \t\tWeight");
+        System.out.println("----------------------");
+        for (int node : tree.preorder()) {
+            int parent = tree.getParent(node);
+            if (parent != -1) {
+                System.out.printf("%s -- %s \t%d%n", nodes[parent].name, nodes[node].name, tree.getParentWeight(node));
+            }
+        }
+        System.out.println("----------------------");
+        System.out.println("Total Steiner Tree Weight: " + tree.getTotalWeight());
+
+        // terminals in different trees cannot be connected at all
+        UnionFind parts = new UnionFind(nodes.length);
+        for (int i = 0; i < tree.getNumberOfEdges(); i++) {
+            parts.union(tree.getSource(i), tree.getTarget(i));
+        }
+        int[] roots = new int[terminals.length];
+        for (int i = 0; i < terminals.length; i++) {
+            roots[i] = parts.find(terminals[i]);
+        }
+        long separate = Arrays.stream(roots).distinct().count();
+        if (separate > 1) {
+            System.out.println("Critical sites are disconnected: " + separate + " separate trees");
+        }
     }
 
     /**
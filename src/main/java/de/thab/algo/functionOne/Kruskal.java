@@ -0,0 +1,171 @@
+package de.thab.algo.functionOne;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.SpanningForest;
+import de.thab.algo.abstractdatastructures.UnionFind;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Kruskal's algorithm for minimum spanning forests.
+ *
+ * Edges are scanned by increasing weight and taken whenever they join two different
+ * components of a {@link UnionFind}. Unlike Prim's algorithm this never needs a start
+ * node and naturally yields one tree per connected component.
+ *
+ * Every edge is encoded as a long key, weight in the high and edge index in the low 32
+ * bits, so sorting and partitioning work on a single primitive array and equal weights
+ * are ordered deterministically by index.
+ */
+public final class Kruskal {
+    // below this many edges Filter-Kruskal sorts instead of partitioning further
+    private static final int SORT_THRESHOLD = 1 << 14;
+    // number of keys sampled to choose a partition pivot
+    private static final int PIVOT_SAMPLES = 63;
+
+    private Kruskal() {
+    }
+
+    /**
+     * Computes a minimum spanning forest by sorting all edges in parallel and scanning them.
+     *
+     * @param graph The graph, every edge is treated as undirected.
+     * @return The minimum spanning forest.
+     */
+    public static SpanningForest kruskal(CompactGraph graph) {
+        Edges edges = new Edges(graph);
+        long[] keys = edges.keys();
+        Arrays.parallelSort(keys);
+        edges.scan(keys);
+        return edges.toForest();
+    }
+
+    /**
+     * Computes a minimum spanning forest with Filter-Kruskal.
+     *
+     * The edges are split around a pivot weight into a light and a heavy half, both in
+     * parallel. The light half is solved first; afterwards every heavy edge whose ends are
+     * already connected can never be part of the forest and is filtered out, again in
+     * parallel, before the rest is solved. On dense candidate sets most heavy edges are
+     * discarded without ever being sorted.
+     *
+     * @param graph The graph, every edge is treated as undirected.
+     * @return The minimum spanning forest.
+     */
+    public static SpanningForest filterKruskal(CompactGraph graph) {
+        Edges edges = new Edges(graph);
+        edges.filterKruskal(edges.keys());
+        return edges.toForest();
+    }
+
+    /**
+     * Candidate edges in parallel arrays, together with the forest being built from them.
+     */
+    private static final class Edges {
+        private final int numberOfNodes;
+        private final int[] from;
+        private final int[] to;
+        private final int[] weight;
+        private final int count;
+        private final UnionFind components;
+        private final int[] forestIndex;
+        private int forestSize;
+
+        Edges(CompactGraph graph) {
+            numberOfNodes = graph.getNumberOfNodes();
+            int capacity = graph.getNumberOfEdges();
+            from = new int[capacity];
+            to = new int[capacity];
+            weight = new int[capacity];
+            int n = 0;
+            for (int u = 0; u < numberOfNodes; u++) {
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                    int v = graph.edgeTarget(e);
+                    if (u != v) {
+                        from[n] = u;
+                        to[n] = v;
+                        weight[n] = graph.edgeWeight(e);
+                        n++;
+                    }
+                }
+            }
+            count = n;
+            components = new UnionFind(numberOfNodes);
+            forestIndex = new int[Math.max(0, numberOfNodes - 1)];
+        }
+
+        long[] keys() {
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = (long) weight[i] << 32 | i;
+            }
+            return keys;
+        }
+
+        boolean isComplete() {
+            return forestSize == forestIndex.length;
+        }
+
+        /**
+         * Takes the edges of sorted keys that join two components.
+         */
+        void scan(long[] sortedKeys) {
+            for (long key : sortedKeys) {
+                if (isComplete()) {
+                    return;
+                }
+                int i = (int) key;
+                if (components.union(from[i], to[i])) {
+                    forestIndex[forestSize++] = i;
+                }
+            }
+        }
+
+        void filterKruskal(long[] keys) {
+            if (keys.length <= SORT_THRESHOLD) {
+                Arrays.parallelSort(keys);
+                scan(keys);
+                return;
+            }
+            long pivot = pivot(keys);
+            long[] light = LongStream.of(keys).parallel().filter(key -> key <= pivot).toArray();
+            long[] heavy = LongStream.of(keys).parallel().filter(key -> key > pivot).toArray();
+            filterKruskal(light);
+            if (isComplete()) {
+                return;
+            }
+            // no union runs while filtering, so the read-only find is safe to share
+            long[] crossing = LongStream.of(heavy).parallel()
+                    .filter(key -> components.findReadOnly(from[(int) key]) != components.findReadOnly(to[(int) key]))
+                    .toArray();
+            filterKruskal(crossing);
+        }
+
+        /**
+         * Median of evenly spaced samples. Keys are unique, so the median of the samples is
+         * below the largest key and both halves are non-empty.
+         */
+        private static long pivot(long[] keys) {
+            long[] samples = new long[PIVOT_SAMPLES];
+            for (int i = 0; i < PIVOT_SAMPLES; i++) {
+                samples[i] = keys[(int) ((long) i * (keys.length - 1) / (PIVOT_SAMPLES - 1))];
+            }
+            Arrays.sort(samples);
+            return samples[PIVOT_SAMPLES / 2];
+        }
+
+        SpanningForest toForest() {
+            int[] sources = new int[forestSize];
+            int[] targets = new int[forestSize];
+            int[] weights = new int[forestSize];
+            for (int k = 0; k < forestSize; k++) {
+                int i = forestIndex[k];
+                sources[k] = from[i];
+                targets[k] = to[i];
+                weights[k] = weight[i];
+            }
+            return new SpanningForest(numberOfNodes, sources, targets, weights, forestSize);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.thab.algo.functionOne;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.Graph;
+import de.thab.algo.abstractdatastructures.SpanningForest;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares the running time of the minimum spanning tree algorithms on a random network.
+ *
+ * Usage: {@code MstBenchmark [nodes] [links per node] [runs]}. The network is a ring, so it
+ * is connected, plus random links.
+ */
+public class MstBenchmark {
+    public static void main(String[] args) {
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int linksPerNode = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        Graph graph = randomNetwork(nodes, linksPerNode, 42);
+        CompactGraph csr = graph.freeze();
+        System.out.printf("Network: %d nodes, %d directed edges, %d cores%n",
+                nodes, csr.getNumberOfEdges(), Runtime.getRuntime().availableProcessors());
+
+        time("Prim", runs, () -> graph.primMST(0));
+        time("Kruskal", runs, () -> Kruskal.kruskal(csr));
+        time("Filter-Kruskal", runs, () -> Kruskal.filterKruskal(csr));
+        time("Boruvka", runs, () -> Boruvka.minimumSpanningForest(csr));
+    }
+
+    private static Graph randomNetwork(int nodes, int linksPerNode, long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[nodes];
+        for (int i = 0; i < nodes; i++) {
+            names[i] = "N" + i;
+        }
+        Graph graph = new Graph(nodes, names);
+        for (int i = 0; i < nodes; i++) {
+            graph.addEdge(i, (i + 1) % nodes, 1 + random.nextInt(10_000));
+            for (int k = 1; k < linksPerNode / 2; k++) {
+                graph.addEdge(i, random.nextInt(nodes), 1 + random.nextInt(10_000));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Runs an algorithm once to warm up, then reports the best of several timed runs.
+     */
+    private static void time(String name, int runs, Supplier<SpanningForest> algorithm) {
+        SpanningForest forest = algorithm.get();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            algorithm.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-15s %8.1f ms   total weight %d%n", name + ":", best / 1e6, forest.getTotalWeight());
+    }
+}
@@ -0,0 +1,209 @@
+package de.thab.algo.functionOne;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.SpanningForest;
+
+import java.util.Arrays;
+
+/**
+ * Replacement links for every edge of a minimum spanning forest: if a tree edge fails, the
+ * cheapest other link that reconnects both halves takes its place.
+ *
+ * A non-tree link (u, v) can replace exactly the tree edges on the path between u and v.
+ * The links are therefore taken by increasing weight, and each one becomes the replacement
+ * of all edges on its path that have none yet. Every tree edge is identified by its lower
+ * end, the child node, and a path-compressed jump array leads from every node to the nearest
+ * ancestor whose edge is still open, so every tree edge is assigned once and covered edges
+ * are skipped in O(α(V)) amortized. After sorting the links the whole analysis costs
+ * O(E α(V)) instead of one spanning tree computation per edge.
+ */
+public final class MstSensitivity {
+    private final SpanningForest forest;
+    // replacement of the edge from every child to its parent, -1 if there is none
+    private final int[] replacementSource;
+    private final int[] replacementTarget;
+    private final int[] replacementWeight;
+
+    private MstSensitivity(SpanningForest forest, int[] replacementSource, int[] replacementTarget,
+                           int[] replacementWeight) {
+        this.forest = forest;
+        this.replacementSource = replacementSource;
+        this.replacementTarget = replacementTarget;
+        this.replacementWeight = replacementWeight;
+    }
+
+    /**
+     * Finds the replacement link of every edge of a minimum spanning forest.
+     *
+     * @param graph  The undirected graph, every link stored in both directions as by Graph.addEdge.
+     * @param forest A minimum spanning forest of the graph.
+     * @return The replacement links.
+     */
+    public static MstSensitivity analyze(CompactGraph graph, SpanningForest forest) {
+        int n = graph.getNumberOfNodes();
+        int[] depth = new int[n];
+        for (int v : forest.preorder()) {
+            int parent = forest.getParent(v);
+            depth[v] = parent == -1 ? 0 : depth[parent] + 1;
+        }
+
+        // non-tree links, each tree edge is skipped once by its child
+        boolean[] skipped = new boolean[n];
+        int[] from = new int[graph.getNumberOfEdges() / 2 + 1];
+        int[] to = new int[from.length];
+        int[] weight = new int[from.length];
+        int count = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.edgeTarget(e);
+                if (v <= u) {
+                    continue;
+                }
+                int child = forest.getParent(v) == u ? v : forest.getParent(u) == v ? u : -1;
+                if (child != -1 && !skipped[child] && forest.getParentWeight(child) == graph.edgeWeight(e)) {
+                    skipped[child] = true;
+                    continue;
+                }
+                if (count == from.length) {
+                    from = Arrays.copyOf(from, count * 2);
+                    to = Arrays.copyOf(to, count * 2);
+                    weight = Arrays.copyOf(weight, count * 2);
+                }
+                from[count] = u;
+                to[count] = v;
+                weight[count] = graph.edgeWeight(e);
+                count++;
+            }
+        }
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = (long) weight[i] << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        int[] replacementSource = new int[n];
+        int[] replacementTarget = new int[n];
+        int[] replacementWeight = new int[n];
+        Arrays.fill(replacementSource, -1);
+        Arrays.fill(replacementTarget, -1);
+        // jump[v] == v while the edge above v is open, roots never get an edge
+        int[] jump = new int[n];
+        for (int v = 0; v < n; v++) {
+            jump[v] = v;
+        }
+        for (long key : keys) {
+            int i = (int) key;
+            int a = open(jump, from[i]);
+            int b = open(jump, to[i]);
+            while (a != b) {
+                if (depth[a] < depth[b]) {
+                    int swap = a;
+                    a = b;
+                    b = swap;
+                }
+                int parent = forest.getParent(a);
+                if (parent == -1) {
+                    // both ends lie in different trees, which a minimum forest rules out
+                    break;
+                }
+                replacementSource[a] = from[i];
+                replacementTarget[a] = to[i];
+                replacementWeight[a] = weight[i];
+                jump[a] = parent;
+                a = open(jump, parent);
+            }
+        }
+        return new MstSensitivity(forest, replacementSource, replacementTarget, replacementWeight);
+    }
+
+    /**
+     * @return The nearest ancestor of the node, or the node itself, whose edge has no
+     *         replacement yet, halving the path on the way.
+     */
+    private static int open(int[] jump, int v) {
+        while (jump[v] != v) {
+            jump[v] = jump[jump[v]];
+            v = jump[v];
+        }
+        return v;
+    }
+
+    public SpanningForest getForest() {
+        return forest;
+    }
+
+    /**
+     * @param child The lower end of a tree edge.
+     * @return true if another link can take over when the edge to the parent fails.
+     */
+    public boolean hasReplacement(int child) {
+        return replacementSource[child] != -1;
+    }
+
+    /**
+     * @param child The lower end of a tree edge.
+     * @return The first end of the replacement link, or -1 if there is none.
+     */
+    public int getReplacementSource(int child) {
+        return replacementSource[child];
+    }
+
+    /**
+     * @param child The lower end of a tree edge.
+     * @return The second end of the replacement link, or -1 if there is none.
+     */
+    public int getReplacementTarget(int child) {
+        return replacementTarget[child];
+    }
+
+    /**
+     * @param child The lower end of a tree edge.
+     * @return The weight of the replacement link, or Integer.MAX_VALUE if there is none.
+     */
+    public int getReplacementWeight(int child) {
+        return hasReplacement(child) ? replacementWeight[child] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param child The lower end of a tree edge.
+     * @return How much the forest gets heavier if the edge fails, or Long.MAX_VALUE if the
+     *         failure splits the network.
+     */
+    public long getCostIncrease(int child) {
+        return hasReplacement(child)
+                ? (long) replacementWeight[child] - forest.getParentWeight(child)
+                : Long.MAX_VALUE;
+    }
+
+    /**
+     * Ranks the tree edges by how much their failure costs, links without replacement first.
+     *
+     * @param limit The maximum number of edges to return.
+     * @return The child nodes of the most vital tree edges.
+     */
+    public int[] mostVitalLinks(int limit) {
+        int n = forest.getNumberOfNodes();
+        int[] result = new int[Math.min(limit, forest.getNumberOfEdges())];
+        int found = 0;
+        // failures without replacement come first, in node order
+        for (int v = 0; v < n && found < result.length; v++) {
+            if (forest.getParent(v) != -1 && !hasReplacement(v)) {
+                result[found++] = v;
+            }
+        }
+
+        long[] keys = new long[forest.getNumberOfEdges()];
+        int count = 0;
+        for (int v = 0; v < n && found < result.length; v++) {
+            if (forest.getParent(v) != -1 && hasReplacement(v)) {
+                // weights are positive, so increases stay below 2^31 and keep the keys positive
+                keys[count++] = (getCostIncrease(v) << 32) | (~v & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        for (int i = 0; found < result.length; i++) {
+            result[found++] = ~(int) keys[count - 1 - i];
+        }
+        return result;
+    }
+}
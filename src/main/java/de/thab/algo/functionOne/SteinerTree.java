@@ -0,0 +1,182 @@
+package de.thab.algo.functionOne;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.NearestSourceMap;
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.SpanningForest;
+import de.thab.algo.abstractdatastructures.UnionFind;
+
+import java.util.Arrays;
+
+/**
+ * Mehlhorn's approximation of the Steiner tree: a light tree connecting only a chosen set
+ * of terminals, such as the priority sites of a network, instead of every node.
+ *
+ * <ol>
+ *   <li>One Dijkstra search from all terminals at once assigns every node to its nearest
+ *       terminal.</li>
+ *   <li>Every edge between the regions of two terminals gives a candidate connection of
+ *       length d(u) + w + d(v). Kruskal's algorithm over these candidates yields a
+ *       minimum spanning tree of the terminals.</li>
+ *   <li>Each chosen connection is expanded into its edge and the shortest paths from both
+ *       ends back to their terminals.</li>
+ * </ol>
+ * The expanded paths of one region all lead to its terminal and the connections form a tree
+ * over the regions, so the result is a tree without further pruning. Its weight is at most
+ * 2 (1 - 1/t) times the optimum for t terminals. The whole computation costs one Dijkstra
+ * search plus one pass over the edges that keeps the shortest connection per pair of neighbouring
+ * regions, O(E log V) in total.
+ */
+public final class SteinerTree {
+
+    private SteinerTree() {
+    }
+
+    /**
+     * Connects the terminals with a light tree.
+     *
+     * @param graph     The graph, every edge is treated as undirected.
+     * @param terminals The nodes to connect; duplicates are ignored.
+     * @return A forest over all nodes whose edges connect the terminals, one tree per group of
+     *         terminals that are connected in the graph.
+     */
+    public static SpanningForest mehlhorn(CompactGraph graph, int[] terminals) {
+        int n = graph.getNumberOfNodes();
+        NearestSourceMap regions = graph.multiSourceDijkstra(terminals, SearchContext.current(n));
+
+        // cheapest edge between every pair of neighbouring regions
+        PairTable candidates = new PairTable();
+        for (int u = 0; u < n; u++) {
+            int region = regions.getSource(u);
+            if (region == -1) {
+                continue;
+            }
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.edgeTarget(e);
+                int other = regions.getSource(v);
+                if (other == -1 || other == region) {
+                    continue;
+                }
+                long length = (long) regions.getDistance(u) + graph.edgeWeight(e) + regions.getDistance(v);
+                candidates.offer(region, other, length, u, v, graph.edgeWeight(e));
+            }
+        }
+        long[] keys = candidates.sortedKeys();
+
+        int[] sources = new int[Math.max(0, n - 1)];
+        int[] targets = new int[sources.length];
+        int[] weights = new int[sources.length];
+        int size = 0;
+        boolean[] expanded = new boolean[n];
+        UnionFind connected = new UnionFind(n);
+        for (long key : keys) {
+            int slot = (int) key;
+            int u = candidates.from[slot];
+            int v = candidates.to[slot];
+            if (!connected.union(regions.getSource(u), regions.getSource(v))) {
+                continue;
+            }
+            sources[size] = u;
+            targets[size] = v;
+            weights[size] = candidates.weight[slot];
+            size++;
+            // paths from both ends back to their terminals, each node's path edge added once
+            for (int end : new int[]{u, v}) {
+                for (int x = end; regions.getParent(x) != -1 && !expanded[x]; x = regions.getParent(x)) {
+                    expanded[x] = true;
+                    int parent = regions.getParent(x);
+                    sources[size] = parent;
+                    targets[size] = x;
+                    weights[size] = regions.getDistance(x) - regions.getDistance(parent);
+                    size++;
+                }
+            }
+        }
+        return new SpanningForest(n, sources, targets, weights, size);
+    }
+
+    /**
+     * Open addressing table from an unordered pair of regions to the shortest connection
+     * between them, so only one candidate per pair has to be sorted.
+     */
+    private static final class PairTable {
+        private long[] pairs = new long[64];
+        private long[] length = new long[64];
+        private int[] from = new int[64];
+        private int[] to = new int[64];
+        private int[] weight = new int[64];
+        private int size;
+
+        PairTable() {
+            Arrays.fill(pairs, -1);
+        }
+
+        void offer(int regionA, int regionB, long connection, int u, int v, int edgeWeight) {
+            long pair = (long) Math.min(regionA, regionB) << 32 | Math.max(regionA, regionB);
+            int slot = find(pair);
+            if (pairs[slot] == -1) {
+                pairs[slot] = pair;
+                length[slot] = Long.MAX_VALUE;
+                if (++size * 2 > pairs.length) {
+                    grow();
+                    slot = find(pair);
+                }
+            }
+            if (connection < length[slot]) {
+                length[slot] = connection;
+                from[slot] = u;
+                to[slot] = v;
+                weight[slot] = edgeWeight;
+            }
+        }
+
+        private int find(long pair) {
+            int mask = pairs.length - 1;
+            int slot = (int) (pair * 0x9E3779B97F4A7C15L >>> 32) & mask;
+            while (pairs[slot] != -1 && pairs[slot] != pair) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldPairs = pairs;
+            long[] oldLength = length;
+            int[] oldFrom = from;
+            int[] oldTo = to;
+            int[] oldWeight = weight;
+            int capacity = oldPairs.length * 2;
+            pairs = new long[capacity];
+            Arrays.fill(pairs, -1);
+            length = new long[capacity];
+            from = new int[capacity];
+            to = new int[capacity];
+            weight = new int[capacity];
+            for (int i = 0; i < oldPairs.length; i++) {
+                if (oldPairs[i] != -1) {
+                    int slot = find(oldPairs[i]);
+                    pairs[slot] = oldPairs[i];
+                    length[slot] = oldLength[i];
+                    from[slot] = oldFrom[i];
+                    to[slot] = oldTo[i];
+                    weight[slot] = oldWeight[i];
+                }
+            }
+        }
+
+        /**
+         * @return length &lt;&lt; 32 | slot for every pair, by increasing length.
+         */
+        long[] sortedKeys() {
+            long[] keys = new long[size];
+            int count = 0;
+            for (int i = 0; i < pairs.length; i++) {
+                if (pairs[i] != -1) {
+                    keys[count++] = Math.min(length[i], Integer.MAX_VALUE) << 32 | i;
+                }
+            }
+            Arrays.sort(keys);
+            return keys;
+        }
+    }
+}
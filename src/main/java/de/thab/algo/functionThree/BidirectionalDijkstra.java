@@ -0,0 +1,114 @@
+package de.thab.algo.functionThree;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.queue.CustomPriorityQueue;
+
+/**
+ * Point-to-point shortest path search that grows one Dijkstra search forward from the
+ * source and one backward from the target until they meet.
+ *
+ * Each step expands the side whose queue has the smaller key. The search stops as soon as
+ * the two smallest keys add up to at least the best route found so far, so the work
+ * depends on the length of the route rather than on the size of the city.
+ */
+final class BidirectionalDijkstra {
+
+    private BidirectionalDijkstra() {
+    }
+
+    /**
+     * Finds the shortest open route between two nodes.
+     *
+     * @param graph    The snapshot to route in, blocked roads are skipped.
+     * @param source   The start node.
+     * @param target   The destination node.
+     * @param forward  The workspace for the search from the source.
+     * @param backward The workspace for the search from the target.
+     * @return The route, or an unreachable route if the target cannot be reached.
+     */
+    static Route findRoute(NetworkSnapshot graph, int source, int target,
+                           SearchContext forward, SearchContext backward) {
+        CompactGraph outgoing = graph.network();
+        CompactGraph incoming = graph.reverseNetwork();
+
+        forward.start();
+        backward.start();
+        forward.update(source, 0, -1);
+        backward.update(target, 0, -1);
+        CustomPriorityQueue forwardQueue = forward.getQueue();
+        CustomPriorityQueue backwardQueue = backward.getQueue();
+        forwardQueue.enqueue(source, 0);
+        backwardQueue.enqueue(target, 0);
+
+        long best = source == target ? 0 : Long.MAX_VALUE;
+        int meeting = source == target ? source : -1;
+        int settledCount = 0;
+
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+            if ((long) forwardQueue.peekKey() + backwardQueue.peekKey() >= best) {
+                break;
+            }
+            boolean expandForward = forwardQueue.peekKey() <= backwardQueue.peekKey();
+            SearchContext side = expandForward ? forward : backward;
+            SearchContext other = expandForward ? backward : forward;
+            CompactGraph edges = expandForward ? outgoing : incoming;
+
+            int u = side.getQueue().dequeueVertex();
+            side.settle(u);
+            settledCount++;
+            int distance = side.getDistance(u);
+
+            for (int e = edges.edgeStart(u); e < edges.edgeEnd(u); e++) {
+                if (!graph.isOpen(edges.edgeId(e))) continue;
+
+                int v = edges.edgeTarget(e);
+                if (side.isSettled(v)) continue;
+
+                int newDist = distance + edges.edgeWeight(e);
+                if (newDist < side.getDistance(v)) {
+                    side.update(v, newDist, u);
+                    side.getQueue().enqueueOrDecreaseKey(v, newDist);
+                }
+                int otherDistance = other.getDistance(v);
+                if (otherDistance != Integer.MAX_VALUE && (long) side.getDistance(v) + otherDistance < best) {
+                    best = (long) side.getDistance(v) + otherDistance;
+                    meeting = v;
+                }
+            }
+        }
+
+        if (meeting == -1) {
+            return Route.unreachable(source, target, settledCount);
+        }
+        return new Route(source, target, (int) best, joinPath(forward, backward, meeting), settledCount);
+    }
+
+    /**
+     * Joins the forward path to the meeting node with the backward path from it.
+     */
+    private static int[] joinPath(SearchContext forward, SearchContext backward, int meeting) {
+        int length = 0;
+        for (int v = meeting; v != -1; v = forward.getParent(v)) {
+            length++;
+        }
+        for (int v = backward.getParent(meeting); v != -1; v = backward.getParent(v)) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        int i = 0;
+        for (int v = meeting; v != -1; v = forward.getParent(v)) {
+            path[i++] = v;
+        }
+        for (int l = 0, r = i - 1; l < r; l++, r--) {
+            int swap = path[l];
+            path[l] = path[r];
+            path[r] = swap;
+        }
+        for (int v = backward.getParent(meeting); v != -1; v = backward.getParent(v)) {
+            path[i++] = v;
+        }
+        return path;
+    }
+}
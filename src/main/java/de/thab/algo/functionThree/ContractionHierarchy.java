@@ -0,0 +1,691 @@
+package de.thab.algo.functionThree;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.SearchContext;
+
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchy for point-to-point queries on a rarely changing road network.
+ *
+ * Preprocessing has two phases:
+ * <ol>
+ *   <li>{@link #build(EvacuationGraph)} orders the nodes by nested dissection and contracts
+ *       them in that order. Contracting a node connects all of its not yet contracted
+ *       neighbours with shortcuts. The result is an upward graph in which every arc points
+ *       from a lower ranked node to a higher ranked one. This phase only looks at the
+ *       structure of the map, not at travel times or closures.</li>
+ *   <li>{@link #customize()} assigns travel times to the arcs: original roads get their
+ *       weight, blocked roads and missing directions get infinity, and shortcuts are
+ *       relaxed bottom-up over the lower triangles they close.</li>
+ * </ol>
+ * Because the shortcuts do not depend on the weights, blocking or reopening roads only
+ * requires running {@link #customize()} again instead of rebuilding the hierarchy. It fills
+ * new arrays and publishes them at once, so queries running meanwhile finish on the
+ * previous weights.
+ *
+ * A query walks the ancestors of the source and the target in the elimination tree (the
+ * tree that links every node to its lowest ranked upper neighbour) and needs no priority
+ * queue. The shortest route meets at the common ancestor with the smallest total distance.
+ */
+public class ContractionHierarchy {
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final EvacuationGraph graph;
+    private final int numberOfNodes;
+    private final int[] rank;
+    private final int[] order;
+    private final int[] eliminationParent;
+    // upward arcs of node v (to higher ranked nodes) at [upOffsets[v], upOffsets[v + 1]),
+    // sorted by the rank of their target so an arc can be found by binary search
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    // lower ranked end of every arc
+    private final int[] arcSources;
+    // arc index * 2, plus 1 if the road runs from the higher to the lower ranked node, per road slot
+    private final int[] roadArcs;
+    // arc weights of the last customization, replaced as a whole so queries never see a mix
+    private volatile Customization customization;
+
+    /**
+     * Travel times of the arcs for one state of the network. Never changed once published.
+     */
+    private static final class Customization {
+        // travel time along an arc upward (lower -> higher) and downward (higher -> lower)
+        final int[] upWeights;
+        final int[] downWeights;
+        // node a shortcut skips, -1 for an original road
+        final int[] upMiddle;
+        final int[] downMiddle;
+
+        Customization(int arcs) {
+            upWeights = new int[arcs];
+            downWeights = new int[arcs];
+            upMiddle = new int[arcs];
+            downMiddle = new int[arcs];
+            Arrays.fill(upWeights, INFINITY);
+            Arrays.fill(downWeights, INFINITY);
+            Arrays.fill(upMiddle, -1);
+            Arrays.fill(downMiddle, -1);
+        }
+    }
+
+    private ContractionHierarchy(EvacuationGraph graph, int[] rank, int[] order, int[] eliminationParent,
+                                 int[] upOffsets, int[] upTargets) {
+        this.graph = graph;
+        this.numberOfNodes = rank.length;
+        this.rank = rank;
+        this.order = order;
+        this.eliminationParent = eliminationParent;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        int arcs = upTargets.length;
+        arcSources = new int[arcs];
+        for (int v = 0; v < numberOfNodes; v++) {
+            Arrays.fill(arcSources, upOffsets[v], upOffsets[v + 1], v);
+        }
+        roadArcs = new int[graph.network().getNumberOfEdges()];
+    }
+
+    /**
+     * Orders and contracts the nodes of the network and customizes the result.
+     *
+     * @param graph The evacuation graph.
+     * @return The customized contraction hierarchy.
+     */
+    public static ContractionHierarchy build(EvacuationGraph graph) {
+        CompactGraph network = graph.network();
+        int n = network.getNumberOfNodes();
+        int[][] skeleton = skeleton(network);
+        int[] order = dissectionOrder(skeleton);
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[order[i]] = i;
+        }
+
+        // Contracting v links all of its upper neighbours. They all become neighbours of the
+        // lowest of them, its parent in the elimination tree, so it is enough to hand them
+        // to the parent; the remaining links follow when the parent is contracted.
+        int[][] pending = new int[n][];
+        int[] pendingCount = new int[n];
+        for (int v = 0; v < n; v++) {
+            pending[v] = skeleton[v];
+            pendingCount[v] = skeleton[v].length;
+        }
+        int[][] upper = new int[n][];
+        int[] eliminationParent = new int[n];
+        int[] stamp = new int[n];
+        Arrays.fill(stamp, -1);
+        int[] found = new int[16];
+        for (int v : order) {
+            int count = 0;
+            int parent = -1;
+            for (int i = 0; i < pendingCount[v]; i++) {
+                int u = pending[v][i];
+                if (rank[u] > rank[v] && stamp[u] != v) {
+                    stamp[u] = v;
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = u;
+                    if (parent == -1 || rank[u] < rank[parent]) {
+                        parent = u;
+                    }
+                }
+            }
+            pending[v] = null;
+            upper[v] = sortByRank(Arrays.copyOf(found, count), rank);
+            eliminationParent[v] = parent;
+            if (parent != -1) {
+                for (int u : upper[v]) {
+                    if (u != parent) {
+                        if (pendingCount[parent] == pending[parent].length) {
+                            pending[parent] = Arrays.copyOf(pending[parent], Math.max(4, pendingCount[parent] * 2));
+                        }
+                        pending[parent][pendingCount[parent]++] = u;
+                    }
+                }
+            }
+        }
+
+        int[] upOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] = upOffsets[v] + upper[v].length;
+        }
+        int[] upTargets = new int[upOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            System.arraycopy(upper[v], 0, upTargets, upOffsets[v], upper[v].length);
+        }
+
+        ContractionHierarchy hierarchy = new ContractionHierarchy(graph, rank, order, eliminationParent,
+                upOffsets, upTargets);
+        hierarchy.mapRoads(network);
+        hierarchy.customize();
+        return hierarchy;
+    }
+
+    /**
+     * @return The undirected neighbours of every node, without self loops and duplicates.
+     */
+    private static int[][] skeleton(CompactGraph network) {
+        int n = network.getNumberOfNodes();
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int e = network.edgeStart(u); e < network.edgeEnd(u); e++) {
+                int v = network.edgeTarget(e);
+                if (u != v) {
+                    degree[u]++;
+                    degree[v]++;
+                }
+            }
+        }
+        int[][] neighbours = new int[n][];
+        for (int u = 0; u < n; u++) {
+            neighbours[u] = new int[degree[u]];
+        }
+        int[] count = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int e = network.edgeStart(u); e < network.edgeEnd(u); e++) {
+                int v = network.edgeTarget(e);
+                if (u != v) {
+                    neighbours[u][count[u]++] = v;
+                    neighbours[v][count[v]++] = u;
+                }
+            }
+        }
+        int[] stamp = new int[n];
+        Arrays.fill(stamp, -1);
+        for (int u = 0; u < n; u++) {
+            int kept = 0;
+            for (int v : neighbours[u]) {
+                if (stamp[v] != u) {
+                    stamp[v] = u;
+                    neighbours[u][kept++] = v;
+                }
+            }
+            neighbours[u] = Arrays.copyOf(neighbours[u], kept);
+        }
+        return neighbours;
+    }
+
+    /**
+     * Computes a nested dissection order: each part of the map is split by a small set of
+     * separator nodes into two halves, the halves are ordered recursively and the separator
+     * is ranked above both. Few shortcuts cross a separator, which keeps the hierarchy sparse
+     * and the elimination tree shallow.
+     *
+     * Separators are BFS levels. A breadth-first search from a peripheral node numbers the
+     * nodes of a part by hop distance, no road skips a level, so any level between the
+     * first and the last separates the levels before it from those after it. The smallest
+     * level around the middle is taken.
+     *
+     * @param neighbours The undirected neighbours of every node.
+     * @return The nodes from lowest to highest rank.
+     */
+    private static int[] dissectionOrder(int[][] neighbours) {
+        int n = neighbours.length;
+        // every part is a slice of the order, which is rearranged in place to
+        // [first half, second half, separator]
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[v] = v;
+        }
+        int[] part = new int[n];
+        int[] level = new int[n];
+        int[] visited = new int[n];
+        Arrays.fill(visited, -1);
+        int[] queue = new int[n];
+        int[] scratch = new int[n];
+        int bfsCount = 0;
+        int parts = 1;
+
+        // slices still to split: from, to and the part label of their nodes
+        int[] tasks = new int[96];
+        int taskCount = 0;
+        tasks[taskCount++] = 0;
+        tasks[taskCount++] = n;
+        tasks[taskCount++] = 0;
+        while (taskCount > 0) {
+            int label = tasks[--taskCount];
+            int to = tasks[--taskCount];
+            int from = tasks[--taskCount];
+            if (to - from <= 2) {
+                continue;
+            }
+
+            // the last node a search reaches is far from the start, start the real search there
+            int reached = bfs(neighbours, order[from], label, part, level, visited, bfsCount++, queue);
+            int peripheral = queue[reached - 1];
+            int size = to - from;
+            if (reached == size) {
+                bfs(neighbours, peripheral, label, part, level, visited, bfsCount++, queue);
+            }
+
+            int firstLabel = parts++;
+            int secondLabel = parts++;
+            int firstSize;
+            int separatorSize;
+            if (reached < size) {
+                // disconnected: the reached component and the rest need no separator
+                for (int i = from; i < to; i++) {
+                    int v = order[i];
+                    part[v] = visited[v] == bfsCount - 1 ? firstLabel : secondLabel;
+                }
+                firstSize = reached;
+                separatorSize = 0;
+            } else {
+                int separatorLevel = separatorLevel(queue, size, level);
+                firstSize = 0;
+                separatorSize = 0;
+                for (int i = 0; i < size; i++) {
+                    int v = queue[i];
+                    if (level[v] < separatorLevel) {
+                        part[v] = firstLabel;
+                        firstSize++;
+                    } else if (level[v] == separatorLevel) {
+                        part[v] = -1;
+                        separatorSize++;
+                    } else {
+                        part[v] = secondLabel;
+                    }
+                }
+            }
+
+            int secondSize = size - firstSize - separatorSize;
+            int firstAt = 0;
+            int secondAt = firstSize;
+            int separatorAt = firstSize + secondSize;
+            for (int i = from; i < to; i++) {
+                int v = order[i];
+                if (part[v] == firstLabel) {
+                    scratch[firstAt++] = v;
+                } else if (part[v] == secondLabel) {
+                    scratch[secondAt++] = v;
+                } else {
+                    scratch[separatorAt++] = v;
+                }
+            }
+            System.arraycopy(scratch, 0, order, from, size);
+
+            if (taskCount + 6 > tasks.length) {
+                tasks = Arrays.copyOf(tasks, tasks.length * 2);
+            }
+            tasks[taskCount++] = from;
+            tasks[taskCount++] = from + firstSize;
+            tasks[taskCount++] = firstLabel;
+            tasks[taskCount++] = from + firstSize;
+            tasks[taskCount++] = from + firstSize + secondSize;
+            tasks[taskCount++] = secondLabel;
+        }
+        return order;
+    }
+
+    /**
+     * Breadth-first search over the nodes of one part.
+     *
+     * @return The number of nodes reached, which are at the front of the queue in BFS order.
+     */
+    private static int bfs(int[][] neighbours, int start, int label, int[] part, int[] level,
+                           int[] visited, int mark, int[] queue) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = mark;
+        level[start] = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int v : neighbours[u]) {
+                if (part[v] == label && visited[v] != mark) {
+                    visited[v] = mark;
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Picks the smallest BFS level that still leaves at least a third of the part on either
+     * side, falling back to the median level for very short searches.
+     *
+     * @param queue The nodes of the part in BFS order.
+     * @param size  The number of nodes in the part.
+     * @param level The BFS level of every node.
+     * @return The level to use as separator.
+     */
+    private static int separatorLevel(int[] queue, int size, int[] level) {
+        int levels = level[queue[size - 1]] + 1;
+        int[] levelSize = new int[levels];
+        for (int i = 0; i < size; i++) {
+            levelSize[level[queue[i]]]++;
+        }
+        int best = level[queue[size / 2]];
+        int before = 0;
+        for (int l = 0; l < levels; l++) {
+            int after = size - before - levelSize[l];
+            if (3 * before >= size && 3 * after >= size && levelSize[l] < levelSize[best]) {
+                best = l;
+            }
+            before += levelSize[l];
+        }
+        return best;
+    }
+
+    private static int[] sortByRank(int[] nodes, int[] rank) {
+        long[] keyed = new long[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            keyed[i] = (long) rank[nodes[i]] << 32 | nodes[i];
+        }
+        Arrays.sort(keyed);
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = (int) keyed[i];
+        }
+        return nodes;
+    }
+
+    /**
+     * Records for every road slot which arc of the hierarchy it belongs to and in which
+     * direction, so customizing is a linear pass over the roads.
+     */
+    private void mapRoads(CompactGraph network) {
+        for (int u = 0; u < numberOfNodes; u++) {
+            for (int e = network.edgeStart(u); e < network.edgeEnd(u); e++) {
+                int v = network.edgeTarget(e);
+                if (u == v) {
+                    roadArcs[e] = -1;
+                } else if (rank[u] < rank[v]) {
+                    roadArcs[e] = findArc(u, v) * 2;
+                } else {
+                    roadArcs[e] = findArc(v, u) * 2 + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param lower  The lower ranked end of the arc.
+     * @param higher The higher ranked end of the arc.
+     * @return The index of the arc between the two nodes.
+     */
+    private int findArc(int lower, int higher) {
+        return findArc(lower, higher, upOffsets[lower]);
+    }
+
+    /**
+     * @param lower  The lower ranked end of the arc.
+     * @param higher The higher ranked end of the arc.
+     * @param from   The first arc of the lower node to consider.
+     * @return The index of the arc between the two nodes.
+     */
+    private int findArc(int lower, int higher, int from) {
+        int key = rank[higher];
+        int lo = from;
+        int hi = upOffsets[lower + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midRank = rank[upTargets[mid]];
+            if (midRank < key) {
+                lo = mid + 1;
+            } else if (midRank > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new IllegalStateException("Missing arc " + lower + " -> " + higher);
+    }
+
+    /**
+     * Recomputes the travel time of every arc from the current road weights and closures.
+     *
+     * Processing nodes bottom-up, every pair of upper neighbours u, w of a node v closes a
+     * lower triangle, and the arc between u and w can be no longer than the detour over v.
+     * The cost is proportional to the number of triangles, far below a rebuild. Concurrent
+     * calls run one after the other, so a customization of an older snapshot can never be
+     * published after one of a newer snapshot.
+     *
+     * @throws IllegalStateException if roads were added to the graph after {@link #build(EvacuationGraph)}.
+     */
+    public synchronized void customize() {
+        NetworkSnapshot state = graph.snapshot();
+        CompactGraph network = state.network();
+        // roads are mapped to arcs by slot; a new road shifts the slots and is missing from the arcs
+        if (network.getNumberOfEdges() != roadArcs.length) {
+            throw new IllegalStateException("Roads were added since the hierarchy was built ("
+                    + roadArcs.length + " -> " + network.getNumberOfEdges() + "), build a new one");
+        }
+        Customization next = new Customization(upTargets.length);
+        int[] upWeights = next.upWeights;
+        int[] downWeights = next.downWeights;
+
+        for (int u = 0; u < numberOfNodes; u++) {
+            for (int e = network.edgeStart(u); e < network.edgeEnd(u); e++) {
+                int mapped = roadArcs[e];
+                if (mapped == -1 || !state.isOpen(network.edgeId(e))) {
+                    continue;
+                }
+                int arc = mapped >> 1;
+                int weight = network.edgeWeight(e);
+                if ((mapped & 1) == 0) {
+                    upWeights[arc] = Math.min(upWeights[arc], weight);
+                } else {
+                    downWeights[arc] = Math.min(downWeights[arc], weight);
+                }
+            }
+        }
+
+        for (int v : order) {
+            int start = upOffsets[v];
+            int end = upOffsets[v + 1];
+            for (int i = start; i < end; i++) {
+                int lower = upTargets[i];
+                // both lists are sorted by rank, so each arc is searched after the previous one
+                int arc = upOffsets[lower] - 1;
+                for (int j = i + 1; j < end; j++) {
+                    arc = findArc(lower, upTargets[j], arc + 1);
+                    relax(upWeights, next.upMiddle, arc, downWeights[i], upWeights[j], v);
+                    relax(downWeights, next.downMiddle, arc, downWeights[j], upWeights[i], v);
+                }
+            }
+        }
+        customization = next;
+    }
+
+    private static void relax(int[] weights, int[] middle, int arc, int first, int second, int via) {
+        if (first != INFINITY && second != INFINITY && first + second < weights[arc]) {
+            weights[arc] = first + second;
+            middle[arc] = via;
+        }
+    }
+
+    /**
+     * Finds the fastest open route between two nodes.
+     *
+     * @param source The start node.
+     * @param target The destination node.
+     * @return The route, unreachable if every route is blocked.
+     */
+    public Route findRoute(int source, int target) {
+        return findRoute(source, target, SearchContext.current(numberOfNodes), SearchContext.backward(numberOfNodes));
+    }
+
+    /**
+     * Finds the fastest open route between two nodes in the given workspaces.
+     *
+     * The forward search climbs from the source over upward arcs, the backward search
+     * climbs from the target over downward arcs. Both only visit elimination tree
+     * ancestors, which are processed in rank order so every node is final when visited.
+     * The parent entry of a visited node holds the arc it was reached over.
+     *
+     * @param source   The start node.
+     * @param target   The destination node.
+     * @param forward  The workspace for the search from the source.
+     * @param backward The workspace for the search from the target.
+     * @return The route, unreachable if every route is blocked.
+     */
+    public Route findRoute(int source, int target, SearchContext forward, SearchContext backward) {
+        Customization weights = customization;
+        forward.ensureCapacity(numberOfNodes);
+        backward.ensureCapacity(numberOfNodes);
+        forward.start();
+        backward.start();
+        forward.update(source, 0, -1);
+        backward.update(target, 0, -1);
+
+        long best = Long.MAX_VALUE;
+        int meeting = -1;
+        int settledCount = 0;
+        int s = source;
+        int t = target;
+        while (s != -1 || t != -1) {
+            if (t == -1 || (s != -1 && rank[s] < rank[t])) {
+                climb(s, forward, weights.upWeights);
+                s = eliminationParent[s];
+            } else if (s == -1 || rank[t] < rank[s]) {
+                climb(t, backward, weights.downWeights);
+                t = eliminationParent[t];
+            } else {
+                // common ancestor, both searches are final here
+                int fromSource = forward.getDistance(s);
+                int toTarget = backward.getDistance(s);
+                if (fromSource != INFINITY && toTarget != INFINITY && (long) fromSource + toTarget < best) {
+                    best = (long) fromSource + toTarget;
+                    meeting = s;
+                }
+                climb(s, forward, weights.upWeights);
+                climb(s, backward, weights.downWeights);
+                s = eliminationParent[s];
+                t = eliminationParent[t];
+            }
+            settledCount++;
+        }
+
+        if (meeting == -1) {
+            return Route.unreachable(source, target, settledCount);
+        }
+        return new Route(source, target, (int) best, unpack(source, target, meeting, forward, backward, weights),
+                settledCount);
+    }
+
+    /**
+     * Relaxes all upward arcs of a node in one direction of the query.
+     */
+    private void climb(int v, SearchContext side, int[] weights) {
+        int distance = side.getDistance(v);
+        if (distance == INFINITY) {
+            return;
+        }
+        for (int arc = upOffsets[v]; arc < upOffsets[v + 1]; arc++) {
+            int weight = weights[arc];
+            if (weight == INFINITY) {
+                continue;
+            }
+            int w = upTargets[arc];
+            if (distance + weight < side.getDistance(w)) {
+                side.update(w, distance + weight, arc);
+            }
+        }
+    }
+
+    /**
+     * Expands the arcs on both halves of the route back into original roads.
+     */
+    private int[] unpack(int source, int target, int meeting, SearchContext forward, SearchContext backward,
+                         Customization weights) {
+        // forward half: the arcs are found from the meeting node down to the source
+        int count = 0;
+        for (int v = meeting; v != source; v = arcSources[forward.getParent(v)]) {
+            count++;
+        }
+        int[] arcs = new int[count];
+        int v = meeting;
+        for (int i = count - 1; i >= 0; i--) {
+            arcs[i] = forward.getParent(v);
+            v = arcSources[arcs[i]];
+        }
+
+        PathBuilder path = new PathBuilder();
+        path.add(source);
+        for (int arc : arcs) {
+            expand(arc, true, path, weights);
+        }
+        // backward half: the arcs already come in travel order from the meeting node
+        for (v = meeting; v != target; ) {
+            int arc = backward.getParent(v);
+            expand(arc, false, path, weights);
+            v = arcSources[arc];
+        }
+        return path.toArray();
+    }
+
+    /**
+     * Appends the original roads of an arc to the path, not repeating its first node.
+     * Shortcuts are expanded with an explicit stack, so deep hierarchies cannot overflow
+     * the call stack.
+     *
+     * @param arc     The arc.
+     * @param upward  true to travel from the lower to the higher end, false for the reverse.
+     * @param path    The path to append to.
+     * @param weights The customization the route was found with.
+     */
+    private void expand(int arc, boolean upward, PathBuilder path, Customization weights) {
+        // entries are arc * 2, plus 1 for the downward direction
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = upward ? arc * 2 : arc * 2 + 1;
+        while (size > 0) {
+            int entry = stack[--size];
+            int current = entry >> 1;
+            boolean up = (entry & 1) == 0;
+            int middle = up ? weights.upMiddle[current] : weights.downMiddle[current];
+            if (middle == -1) {
+                path.add(up ? upTargets[current] : arcSources[current]);
+                continue;
+            }
+            int lower = arcSources[current];
+            int higher = upTargets[current];
+            int toMiddle;
+            int fromMiddle;
+            if (up) {
+                // lower -> middle runs down an arc of the middle node, middle -> higher up one
+                toMiddle = findArc(middle, lower) * 2 + 1;
+                fromMiddle = findArc(middle, higher) * 2;
+            } else {
+                toMiddle = findArc(middle, higher) * 2 + 1;
+                fromMiddle = findArc(middle, lower) * 2;
+            }
+            if (size + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[size++] = fromMiddle;
+            stack[size++] = toMiddle;
+        }
+    }
+
+    /**
+     * @return The number of arcs in the hierarchy, original roads and shortcuts.
+     */
+    public int getNumberOfArcs() {
+        return upTargets.length;
+    }
+
+    /**
+     * Growable int array for assembling unpacked paths.
+     */
+    private static final class PathBuilder {
+        private int[] nodes = new int[16];
+        private int size;
+
+        void add(int node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            nodes[size++] = node;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(nodes, size);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package de.thab.algo.functionThree;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
+import de.thab.algo.abstractdatastructures.queue.CustomPriorityQueue;
+
+import java.util.Arrays;
+
+/**
+ * Shortest path tree of one source that is kept up to date while roads are closed, reopened
+ * or change their travel time, in the style of Ramalingam and Reps.
+ *
+ * After a change only the nodes whose distance really changes are touched:
+ * <ul>
+ *   <li>A reopened or faster road that shortens the way to its end node lowers that node
+ *       and propagates the decrease with a Dijkstra search that stops as soon as nothing
+ *       improves.</li>
+ *   <li>A closed or slower tree road cuts off the subtree below it. Every node of the
+ *       subtree gets its best distance over roads coming in from outside, and a Dijkstra
+ *       search restricted to the subtree settles the rest. Roads leaving the subtree are
+ *       then checked once, since a batch may have made it closer than before.</li>
+ * </ul>
+ * Closed or slower roads outside the tree change nothing. Children are kept in linked lists
+ * per node, so the subtree is found without scanning the whole tree.
+ */
+public class DynamicShortestPathTree {
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final EvacuationGraph graph;
+    // state of the graph the running update works on
+    private NetworkSnapshot state;
+    private final int source;
+    private final int numberOfNodes;
+    private final int[] distances;
+    private final int[] parents;
+    // children of every node as a doubly linked list
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] previousSibling;
+
+    private final CustomPriorityQueue queue;
+    // nodes of the cut-off subtree and the ones settled again, stamped per update
+    private final int[] affected;
+    private final int[] settled;
+    private final int[] subtree;
+    private int epoch;
+    private int lastUpdatedNodes;
+
+    /**
+     * Computes the initial tree with a full Dijkstra search.
+     *
+     * @param graph  The evacuation graph.
+     * @param source The node to route from.
+     */
+    public DynamicShortestPathTree(EvacuationGraph graph, int source) {
+        this.graph = graph;
+        this.source = source;
+        this.numberOfNodes = graph.getNumberOfNodes();
+        distances = new int[numberOfNodes];
+        parents = new int[numberOfNodes];
+        firstChild = new int[numberOfNodes];
+        nextSibling = new int[numberOfNodes];
+        previousSibling = new int[numberOfNodes];
+        queue = new CustomPriorityQueue(numberOfNodes);
+        affected = new int[numberOfNodes];
+        settled = new int[numberOfNodes];
+        subtree = new int[numberOfNodes];
+
+        ShortestPathTree initial = graph.calculateEvacuationRoutes(source);
+        Arrays.fill(firstChild, -1);
+        for (int v = 0; v < numberOfNodes; v++) {
+            distances[v] = initial.getDistance(v);
+            parents[v] = -1;
+        }
+        for (int v = 0; v < numberOfNodes; v++) {
+            int parent = initial.getParent(v);
+            if (parent != -1) {
+                attach(v, parent);
+            }
+        }
+        lastUpdatedNodes = initial.getSettledCount();
+    }
+
+    private void attach(int node, int parent) {
+        parents[node] = parent;
+        previousSibling[node] = -1;
+        nextSibling[node] = firstChild[parent];
+        if (firstChild[parent] != -1) {
+            previousSibling[firstChild[parent]] = node;
+        }
+        firstChild[parent] = node;
+    }
+
+    private void detach(int node) {
+        int parent = parents[node];
+        if (parent == -1) {
+            return;
+        }
+        if (previousSibling[node] == -1) {
+            firstChild[parent] = nextSibling[node];
+        } else {
+            nextSibling[previousSibling[node]] = nextSibling[node];
+        }
+        if (nextSibling[node] != -1) {
+            previousSibling[nextSibling[node]] = previousSibling[node];
+        }
+        parents[node] = -1;
+    }
+
+    private void reparent(int node, int parent) {
+        detach(node);
+        attach(node, parent);
+    }
+
+    /**
+     * Updates the tree after the roads between two nodes were closed, reopened or changed
+     * their travel time, in both directions as by {@link EvacuationGraph#blockRoad(int, int)}.
+     *
+     * @param src  The first node.
+     * @param dest The second node.
+     * @return The number of nodes whose distance was updated.
+     */
+    public int roadsChanged(int src, int dest) {
+        state = graph.snapshot();
+        lastUpdatedNodes = roadChanged(src, dest) + roadChanged(dest, src);
+        return lastUpdatedNodes;
+    }
+
+    /**
+     * Updates the tree after a batch was applied to the graph.
+     *
+     * @param batch The applied batch.
+     * @return The number of node updates over all roads of the batch.
+     */
+    public int apply(RoadUpdateBatch batch) {
+        state = graph.snapshot();
+        int updated = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            updated += roadChanged(batch.source(i), batch.target(i)) + roadChanged(batch.target(i), batch.source(i));
+        }
+        lastUpdatedNodes = updated;
+        return updated;
+    }
+
+    private int roadChanged(int u, int v) {
+        if (u < 0 || u >= numberOfNodes || v < 0 || v >= numberOfNodes) {
+            return 0;
+        }
+        CompactGraph network = state.network();
+        int e = network.findEdge(u, v);
+        if (e == -1) {
+            return 0;
+        }
+        int candidate = state.isOpen(network.edgeId(e)) && distances[u] != INFINITY
+                ? distances[u] + network.edgeWeight(e)
+                : INFINITY;
+        if (candidate < distances[v]) {
+            return decrease(v, candidate, u);
+        }
+        if (parents[v] == u && candidate > distances[v]) {
+            return increase(v);
+        }
+        return 0;
+    }
+
+    /**
+     * Lowers a node and spreads the improvement to everything reached through it.
+     */
+    private int decrease(int node, int distance, int parent) {
+        CompactGraph network = state.network();
+        queue.clear();
+        distances[node] = distance;
+        reparent(node, parent);
+        queue.enqueue(node, distance);
+        int updated = 0;
+        while (!queue.isEmpty()) {
+            int x = queue.dequeueVertex();
+            updated++;
+            for (int e = network.edgeStart(x); e < network.edgeEnd(x); e++) {
+                if (!state.isOpen(network.edgeId(e))) continue;
+                int y = network.edgeTarget(e);
+                int candidate = distances[x] + network.edgeWeight(e);
+                if (candidate < distances[y]) {
+                    distances[y] = candidate;
+                    reparent(y, x);
+                    queue.enqueueOrDecreaseKey(y, candidate);
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Recomputes the subtree below a node whose tree road got closed or slower.
+     */
+    private int increase(int node) {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(affected, 0);
+            Arrays.fill(settled, 0);
+            epoch = 1;
+        }
+
+        // collect the subtree and cut it loose
+        int size = 0;
+        subtree[size++] = node;
+        affected[node] = epoch;
+        for (int i = 0; i < size; i++) {
+            for (int child = firstChild[subtree[i]]; child != -1; child = nextSibling[child]) {
+                subtree[size++] = child;
+                affected[child] = epoch;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+            detach(x);
+            firstChild[x] = -1;
+            distances[x] = INFINITY;
+        }
+
+        // best way into every cut-off node from the part of the tree that is still valid
+        CompactGraph reverse = state.reverseNetwork();
+        queue.clear();
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+            for (int e = reverse.edgeStart(x); e < reverse.edgeEnd(x); e++) {
+                int y = reverse.edgeTarget(e);
+                if (affected[y] == epoch || distances[y] == INFINITY || !state.isOpen(reverse.edgeId(e))) {
+                    continue;
+                }
+                int candidate = distances[y] + reverse.edgeWeight(e);
+                if (candidate < distances[x]) {
+                    distances[x] = candidate;
+                    parents[x] = y;
+                }
+            }
+            if (distances[x] != INFINITY) {
+                queue.enqueue(x, distances[x]);
+            }
+        }
+
+        CompactGraph network = state.network();
+        while (!queue.isEmpty()) {
+            int x = queue.dequeueVertex();
+            settled[x] = epoch;
+            int parent = parents[x];
+            parents[x] = -1;
+            attach(x, parent);
+            for (int e = network.edgeStart(x); e < network.edgeEnd(x); e++) {
+                int y = network.edgeTarget(e);
+                if (affected[y] != epoch || settled[y] == epoch || !state.isOpen(network.edgeId(e))) {
+                    continue;
+                }
+                int candidate = distances[x] + network.edgeWeight(e);
+                if (candidate < distances[y]) {
+                    distances[y] = candidate;
+                    parents[y] = x;
+                    queue.enqueueOrDecreaseKey(y, candidate);
+                }
+            }
+        }
+
+        // in a batch the subtree may come back over a road the same batch reopened, so it
+        // can now offer shorter ways to nodes outside of it as well
+        int updated = size;
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+            if (settled[x] != epoch) continue;
+            for (int e = network.edgeStart(x); e < network.edgeEnd(x); e++) {
+                int y = network.edgeTarget(e);
+                if (affected[y] == epoch || !state.isOpen(network.edgeId(e))) {
+                    continue;
+                }
+                int candidate = distances[x] + network.edgeWeight(e);
+                if (candidate < distances[y]) {
+                    updated += decrease(y, candidate, x);
+                }
+            }
+        }
+        return updated;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @param node The destination node.
+     * @return The current shortest distance from the source, or Integer.MAX_VALUE.
+     */
+    public int getDistance(int node) {
+        return distances[node];
+    }
+
+    /**
+     * @param node The node.
+     * @return The predecessor of the node on its current shortest path, or -1.
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    public boolean isReachable(int node) {
+        return distances[node] != INFINITY;
+    }
+
+    /**
+     * @return The number of nodes the last update touched.
+     */
+    public int getLastUpdatedNodes() {
+        return lastUpdatedNodes;
+    }
+
+    /**
+     * Copies the current state, e.g. for {@link EvacuationGraph#printEvacuationRoutes(ShortestPathTree)}.
+     *
+     * @return A detached shortest path tree.
+     */
+    public ShortestPathTree toTree() {
+        return ShortestPathTree.of(source, distances, parents);
+    }
+}
@@ -1,184 +1,416 @@
 package de.thab.algo.functionThree;
 
-import de.thab.algo.abstractdatastructures.list.ArrayList;
+import de.thab.algo.abstractdatastructures.Biconnectivity;
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.EdgeIndex;
+import de.thab.algo.abstractdatastructures.GraphBuilder;
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
 import de.thab.algo.abstractdatastructures.queue.CustomPriorityQueue;
 
+import java.util.Arrays;
+
+/**
+ * Road network of the evacuation system with closures and travel times that change at runtime.
+ *
+ * Every change publishes a new immutable {@link NetworkSnapshot}. Route queries pin the
+ * snapshot current at their start, so any number of threads can route without locks while
+ * damage updates come in; writers are serialized among themselves.
+ */
 public class EvacuationGraph {
-    private int numberOfNodes;
-    private ArrayList<ArrayList<EvacuationNode>> adj;
-    private String[] nodeNames;
+    private final int numberOfNodes;
+    private final GraphBuilder builder;
+    private final String[] nodeNames;
+    // closure bits of the latest snapshot; published chunks are copied before a change
+    private long[][] closures;
+    private volatile long version;
+    // latest published state, null after an edge was added until the next read compiles it
+    private volatile NetworkSnapshot snapshot;
 
     public EvacuationGraph(int V, String[] nodeNames) {
         this.numberOfNodes = V;
         this.nodeNames = nodeNames;
-        adj = new ArrayList<>(V);
-        for (int i = 0; i < V; i++) {
-            adj.add(new ArrayList<>(V));
-        }
+        builder = new GraphBuilder(V);
+        builder.setMergeParallelEdges(true);
+        closures = new long[0][];
     }
 
-    public void addEdge(int src, int dest, int weight) {
+    public synchronized void addEdge(int src, int dest, int weight) {
         if (weight > 0) {
-            boolean edgeExists = false;
-            ArrayList<EvacuationNode> srcList = adj.get(src);
-
-            for (int i = 0; i < srcList.size(); i++) {
-                EvacuationNode node = srcList.get(i);
-                if (node.getDest() == dest) {
-                    if (weight < node.getWeight()) {
-                        srcList.add(new EvacuationNode(dest, weight));
-                    }
-                    edgeExists = true;
-                    break;
-                }
-            }
+            builder.addEdge(src, dest, weight);
+            snapshot = null;
+            version++;
+        }
+    }
 
-            if (!edgeExists) {
-                adj.get(src).add(new EvacuationNode(dest, weight));
+    /**
+     * Returns the current state of the graph. A query that uses one snapshot throughout is not
+     * affected by closures, reopenings or travel time changes that happen meanwhile.
+     *
+     * @return The latest published snapshot.
+     */
+    public NetworkSnapshot snapshot() {
+        NetworkSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = new NetworkSnapshot(builder.build(nodeNames), closures, version);
             }
+            return snapshot;
         }
     }
 
+    /**
+     * @return The compiled road network of the current snapshot.
+     */
+    CompactGraph network() {
+        return snapshot().network();
+    }
+
+    /**
+     * @return The reversed network of the current snapshot, edge ids kept.
+     */
+    CompactGraph reverseNetwork() {
+        return snapshot().reverseNetwork();
+    }
+
+    /**
+     * @param edgeId The id of a road.
+     * @return true if the road is not blocked in the current snapshot.
+     */
+    boolean isOpen(int edgeId) {
+        return snapshot().isOpen(edgeId);
+    }
+
+    /**
+     * Finds a road in O(1) through the reverse index of the compiled network.
+     *
+     * @param src  The node the road starts at.
+     * @param dest The node the road leads to.
+     * @return The id of the road, or -1 if there is none.
+     */
+    public int findRoad(int src, int dest) {
+        return snapshot().findRoad(src, dest);
+    }
+
+    /**
+     * Walks the roads between the same pair of nodes that the current snapshot merged into
+     * one, see {@link GraphBuilder#nextParallelEdge(int)}.
+     *
+     * @param roadId The id of a road.
+     * @return The id of the next parallel road, roadId itself if it has none.
+     */
+    synchronized int nextParallelRoad(int roadId) {
+        snapshot();
+        return builder.nextParallelEdge(roadId);
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    /**
+     * The version changes whenever a road is added, blocked or unblocked or a batch is
+     * applied, so results computed for one version stay valid as long as it is current.
+     *
+     * @return The current version of the graph.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public boolean blockRoad(int src, int dest) {
-        boolean blocked = false;
-
-        ArrayList<EvacuationNode> srcNodes = adj.get(src);
-        for (int i = 0; i < srcNodes.size(); i++) {
-            EvacuationNode node = srcNodes.get(i);
-            if (node.getDest() == dest) {
-                node.setBlocked(true);
-                blocked = true;
-                break;
-            }
-        }
+        return setBlocked(src, dest, true);
+    }
 
-        ArrayList<EvacuationNode> destNodes = adj.get(dest);
-        for (int i = 0; i < destNodes.size(); i++) {
-            EvacuationNode node = destNodes.get(i);
-            if (node.getDest() == src) {
-                node.setBlocked(true);
-                blocked = true;
-                break;
-            }
+    public boolean unblockRoad(int src, int dest) {
+        return setBlocked(src, dest, false);
+    }
+
+    private synchronized boolean setBlocked(int src, int dest, boolean state) {
+        NetworkSnapshot current = snapshot();
+        int forward = current.findRoad(src, dest);
+        int backward = current.findRoad(dest, src);
+        if (forward == -1 && backward == -1) {
+            return false;
         }
 
-        return blocked;
+        boolean[] copied = new boolean[chunkCount()];
+        long[][] next = Arrays.copyOf(closures, copied.length);
+        if (forward != -1) {
+            setClosedWithParallels(next, copied, forward, state);
+        }
+        if (backward != -1) {
+            setClosedWithParallels(next, copied, backward, state);
+        }
+        publish(current.withClosures(next, version + 1));
+        return true;
     }
 
-    public boolean unblockRoad(int src, int dest) {
-        boolean unblocked = false;
-
-        ArrayList<EvacuationNode> srcNodes = adj.get(src);
-        for (int i = 0; i < srcNodes.size(); i++) {
-            EvacuationNode node = srcNodes.get(i);
-            if (node.getDest() == dest) {
-                node.setBlocked(false);
-                unblocked = true;
-                break;
+    /**
+     * Applies a batch of updates as one step: either every update is valid and all of them
+     * are applied, or none is. The result is published as a single snapshot, so no query sees
+     * part of a batch, and routing structures need a single refresh per batch, e.g. one
+     * {@link ContractionHierarchy#customize()}.
+     *
+     * @param batch The updates, applied in order.
+     * @return true if travel times changed, which invalidates a {@link LandmarkIndex}.
+     * @throws IllegalArgumentException if an update names no existing road or a travel
+     *                                  time that is not positive; the graph is unchanged.
+     */
+    public synchronized boolean apply(RoadUpdateBatch batch) {
+        NetworkSnapshot current = snapshot();
+        int size = batch.size();
+        int[] forward = new int[size];
+        int[] backward = new int[size];
+        for (int i = 0; i < size; i++) {
+            int src = batch.source(i);
+            int dest = batch.target(i);
+            forward[i] = current.findRoad(src, dest);
+            backward[i] = current.findRoad(dest, src);
+            if (forward[i] == -1 && backward[i] == -1) {
+                throw new IllegalArgumentException("Update " + (i + 1) + ": no road between " + src + " and " + dest);
+            }
+            if (batch.kind(i) == RoadUpdateBatch.SET_WEIGHT && batch.weight(i) <= 0) {
+                throw new IllegalArgumentException("Update " + (i + 1) + ": travel time must be positive");
             }
         }
+        if (size == 0) {
+            return false;
+        }
 
-        ArrayList<EvacuationNode> destNodes = adj.get(dest);
-        for (int i = 0; i < destNodes.size(); i++) {
-            EvacuationNode node = destNodes.get(i);
-            if (node.getDest() == src) {
-                node.setBlocked(false);
-                unblocked = true;
-                break;
+        boolean[] copied = new boolean[chunkCount()];
+        long[][] next = Arrays.copyOf(closures, copied.length);
+        boolean reweighted = false;
+        for (int i = 0; i < size; i++) {
+            for (int road : new int[]{forward[i], backward[i]}) {
+                if (road == -1) {
+                    continue;
+                }
+                switch (batch.kind(i)) {
+                    case RoadUpdateBatch.CLOSE -> setClosedWithParallels(next, copied, road, true);
+                    case RoadUpdateBatch.REOPEN -> setClosedWithParallels(next, copied, road, false);
+                    default -> {
+                        // every merged road gets the new time, so the rebuild cannot keep an older one
+                        int id = road;
+                        do {
+                            builder.setWeight(id, batch.weight(i));
+                            id = builder.nextParallelEdge(id);
+                        } while (id != road);
+                        reweighted = true;
+                    }
+                }
             }
         }
+        publish(reweighted
+                ? new NetworkSnapshot(builder.build(nodeNames), next, version + 1)
+                : current.withClosures(next, version + 1));
+        return reweighted;
+    }
 
-        return unblocked;
+    private int chunkCount() {
+        return (builder.getNumberOfEdges() + NetworkSnapshot.CHUNK_BITS - 1) >>> NetworkSnapshot.CHUNK_SHIFT;
     }
 
-    public void calculateEvacuationRoutes(int startNode) {
-        int[] distances = new int[numberOfNodes];
-        boolean[] visited = new boolean[numberOfNodes];
-        int[] parent = new int[numberOfNodes];
+    /**
+     * Closes or opens a road together with the parallel roads merged into it, so the closure
+     * holds whichever of them a rebuild keeps.
+     */
+    private void setClosedWithParallels(long[][] next, boolean[] copied, int road, boolean state) {
+        int id = road;
+        do {
+            setClosed(next, copied, id, state);
+            id = builder.nextParallelEdge(id);
+        } while (id != road);
+    }
 
-        for (int i = 0; i < numberOfNodes; i++) {
-            distances[i] = Integer.MAX_VALUE;
-            parent[i] = -1;
+    /**
+     * Sets a closure bit in the next state, copying its chunk on the first change so the
+     * published snapshot keeps its own.
+     */
+    private static void setClosed(long[][] next, boolean[] copied, int edgeId, boolean state) {
+        int chunk = edgeId >>> NetworkSnapshot.CHUNK_SHIFT;
+        if (!copied[chunk]) {
+            next[chunk] = next[chunk] == null ? new long[NetworkSnapshot.CHUNK_BITS >>> 6] : next[chunk].clone();
+            copied[chunk] = true;
         }
-        distances[startNode] = 0;
-
-        CustomPriorityQueue pq = new CustomPriorityQueue(numberOfNodes);
-        for (int i = 0; i < numberOfNodes; i++) {
-            pq.enqueue(i, distances[i]);
+        int word = (edgeId & NetworkSnapshot.CHUNK_BITS - 1) >>> 6;
+        if (state) {
+            next[chunk][word] |= 1L << edgeId;
+        } else {
+            next[chunk][word] &= ~(1L << edgeId);
         }
+    }
 
-        while (!pq.isEmpty()) {
-            int u = pq.dequeue().getVertex();
-            if (distances[u] == Integer.MAX_VALUE) break;
+    private void publish(NetworkSnapshot next) {
+        closures = next.closures();
+        version = next.getVersion();
+        snapshot = next;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the start node, skipping blocked roads.
+     *
+     * The search runs in the {@link SearchContext} of the calling thread; use
+     * {@link #printEvacuationRoutes(ShortestPathTree)} to display the result.
+     *
+     * @param startNode The node to route from.
+     * @return The shortest path tree, valid until the thread's next search.
+     */
+    public ShortestPathTree calculateEvacuationRoutes(int startNode) {
+        return calculateEvacuationRoutes(startNode, SearchContext.current(numberOfNodes));
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the start node in the given search workspace.
+     *
+     * @param startNode The node to route from.
+     * @param context   The workspace to run the search in.
+     * @return The shortest path tree, valid until the context's next search.
+     */
+    public ShortestPathTree calculateEvacuationRoutes(int startNode, SearchContext context) {
+        context.ensureCapacity(numberOfNodes);
+        context.start();
+        context.update(startNode, 0, -1);
 
-            visited[u] = true;
+        // only discovered nodes are queued, so the queue never holds more than the frontier
+        CustomPriorityQueue pq = context.getQueue();
+        pq.enqueue(startNode, 0);
 
-            ArrayList<EvacuationNode> adjacentNodes = adj.get(u);
-            for (int j = 0; j < adjacentNodes.size(); j++) {
-                EvacuationNode v = adjacentNodes.get(j);
-                if (v.isBlocked()) continue;
+        NetworkSnapshot state = snapshot();
+        CompactGraph csr = state.network();
+        int settledCount = 0;
+        while (!pq.isEmpty()) {
+            int u = pq.dequeueVertex();
+            context.settle(u);
+            settledCount++;
+            int distance = context.getDistance(u);
 
-                int vVertex = v.getDest();
-                int weight = v.getWeight();
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                if (!state.isOpen(csr.edgeId(e))) continue;
 
-                if (!visited[vVertex] && distances[u] != Integer.MAX_VALUE) {
-                    int newDist = distances[u] + weight;
-                    if (newDist < distances[vVertex]) {
-                        distances[vVertex] = newDist;
-                        parent[vVertex] = u;
-                        pq.decreaseKey(vVertex, distances[vVertex]);
-                    }
+                int vVertex = csr.edgeTarget(e);
+                if (context.isSettled(vVertex)) continue;
+
+                int newDist = distance + csr.edgeWeight(e);
+                if (newDist < context.getDistance(vVertex)) {
+                    context.update(vVertex, newDist, u);
+                    pq.enqueueOrDecreaseKey(vVertex, newDist);
                 }
             }
         }
 
-        printEvacuationRoutes(distances, parent, startNode);
+        return context.toTree(startNode, numberOfNodes, settledCount);
+    }
+
+    /**
+     * Finds the fastest open route between two nodes with a bidirectional Dijkstra search.
+     *
+     * Only the area around the route is explored, so dispatching to a single incident is
+     * much cheaper than {@link #calculateEvacuationRoutes(int)}.
+     *
+     * @param source The start node, e.g. a rescue station.
+     * @param target The destination node, e.g. an incident.
+     * @return The route, unreachable if every route is blocked.
+     */
+    public Route findRoute(int source, int target) {
+        return findRoute(source, target, SearchContext.current(numberOfNodes), SearchContext.backward(numberOfNodes));
+    }
+
+    /**
+     * Finds the fastest open route between two nodes in the given search workspaces.
+     *
+     * @param source   The start node.
+     * @param target   The destination node.
+     * @param forward  The workspace for the search from the source.
+     * @param backward The workspace for the search from the target.
+     * @return The route, unreachable if every route is blocked.
+     */
+    public Route findRoute(int source, int target, SearchContext forward, SearchContext backward) {
+        forward.ensureCapacity(numberOfNodes);
+        backward.ensureCapacity(numberOfNodes);
+        return BidirectionalDijkstra.findRoute(snapshot(), source, target, forward, backward);
+    }
+
+    /**
+     * Finds the roads and junctions whose loss would cut parts of the network off. Open roads
+     * link their ends in both directions for this purpose; blocked roads are left out.
+     *
+     * @return The bridges, articulation points and 2-edge-connected components.
+     */
+    public Biconnectivity findVulnerabilities() {
+        NetworkSnapshot state = snapshot();
+        return Biconnectivity.analyze(state.network(), state.reverseNetwork(), state::isOpen);
+    }
+
+    public void printVulnerabilities(Biconnectivity analysis) {
+        System.out.println("\n=== Single Points of Failure ===");
+        System.out.println("Critical roads:");
+        for (int i = 0; i < analysis.getNumberOfBridges(); i++) {
+            System.out.println("  " + nodeNames[analysis.getBridgeSource(i)] + " - "
+                    + nodeNames[analysis.getBridgeTarget(i)]);
+        }
+        System.out.println("Critical junctions:");
+        for (int node : analysis.getArticulationPoints()) {
+            System.out.println("  " + nodeNames[node]);
+        }
+        System.out.println("Areas that survive any single road closure: " + analysis.getNumberOfComponents());
+    }
+
+    public void printRoute(Route route) {
+        System.out.println("\n=== Route from " + nodeNames[route.getSource()] +
+                " to " + nodeNames[route.getTarget()] + " ===");
+        if (route.isReachable()) {
+            System.out.println("Distance: " + route.getDistance());
+        }
+        System.out.println("Route: " + getEvacuationPath(route.getPath()));
+        System.out.println("Nodes explored: " + route.getSettledCount());
     }
 
-    private void printEvacuationRoutes(int[] distances, int[] parent, int startNode) {
+    public void printEvacuationRoutes(ShortestPathTree tree) {
+        int startNode = tree.getSource();
         System.out.println("\n=== Evacuation Routes from " + nodeNames[startNode] + " ===");
         System.out.println("Destination\tDistance\tRoute");
         System.out.println("----------------------------------------");
 
         for (int i = 0; i < numberOfNodes; i++) {
             if (i != startNode) {
-                String distance = distances[i] == Integer.MAX_VALUE ? "∞" : String.valueOf(distances[i]);
+                int distance = tree.getDistance(i);
                 System.out.printf("%-12s\t%-9s\t%s%n",
                         nodeNames[i],
-                        distance,
-                        getEvacuationPath(parent, i, startNode, distances[i]));
+                        distance == Integer.MAX_VALUE ? "∞" : String.valueOf(distance),
+                        getEvacuationPath(tree.getPath(i)));
             }
         }
     }
 
-    private String getEvacuationPath(int[] parent, int currentVertex, int startVertex, int distance) {
-        if (distance == Integer.MAX_VALUE) {
+    String getEvacuationPath(int[] path) {
+        if (path.length == 0) {
             return "No route available - road blocked";
         }
-        if (currentVertex == startVertex) {
-            return nodeNames[startVertex];
-        }
-        if (parent[currentVertex] == -1) {
-            return "No route available - road blocked";
+        StringBuilder route = new StringBuilder(nodeNames[path[0]]);
+        for (int i = 1; i < path.length; i++) {
+            route.append(" → ").append(nodeNames[path[i]]);
         }
-        return getEvacuationPath(parent, parent[currentVertex], startVertex, distance) +
-                " → " + nodeNames[currentVertex];
+        return route.toString();
     }
 
     public void printNetwork() {
         System.out.println("Evacuation Network Structure:");
         System.out.println("----------------------------");
+        NetworkSnapshot state = snapshot();
+        CompactGraph csr = state.network();
         for (int i = 0; i < numberOfNodes; i++) {
             System.out.printf("%-2s → ", nodeNames[i]);
-            ArrayList<EvacuationNode> neighbors = adj.get(i);
 
-            for (int j = 0; j < neighbors.size(); j++) {
-                EvacuationNode neighbor = neighbors.get(j);
+            for (int e = csr.edgeStart(i); e < csr.edgeEnd(i); e++) {
                 System.out.printf("%s(%d)%s",
-                        nodeNames[neighbor.getDest()],
-                        neighbor.getWeight(),
-                        neighbor.isBlocked() ? "[BLOCKED]" : "");
-                if (j < neighbors.size() - 1) {
+                        nodeNames[csr.edgeTarget(e)],
+                        csr.edgeWeight(e),
+                        state.isOpen(csr.edgeId(e)) ? "" : "[BLOCKED]");
+                if (e < csr.edgeEnd(i) - 1) {
                     System.out.print(", ");
                 }
             }
@@ -1,16 +1,26 @@
 package de.thab.algo.functionThree;
 
+import de.thab.algo.abstractdatastructures.Biconnectivity;
+import de.thab.algo.abstractdatastructures.CompactGraph;
 import de.thab.algo.abstractdatastructures.Graph;
-import de.thab.algo.abstractdatastructures.list.ArrayList;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
 import de.thab.algo.graphreader.GraphReader;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 
 public class EvacuationSystem {
     private EvacuationGraph graph;
     private InfrastructureNode[] infrastructureNodes;
     private String[] nodeNames;
+    private ContractionHierarchy hierarchy;
+    // evacuation routes of the last calculation, kept current under closures and reopenings
+    private DynamicShortestPathTree evacuationRoutes;
+    // trees of recent route calculations, valid while the graph version is unchanged
+    private final RouteCache routeCache = new RouteCache(16);
 
     public void initialize(String filePath) throws IOException {
         Object[] graphData = GraphReader.readFromFileWithNamesDijkstra(filePath);
@@ -23,16 +33,16 @@ public class EvacuationSystem {
 
         // Copy edges from original graph to evacuation graph
         copyEdgesFromOriginalGraph(originalGraph);
+
+        // Incident routes are answered from a contraction hierarchy, built once per map
+        hierarchy = ContractionHierarchy.build(graph);
     }
 
     private void copyEdgesFromOriginalGraph(Graph originalGraph) {
+        CompactGraph csr = originalGraph.compile();
         for (int i = 0; i < nodeNames.length; i++) {
-            ArrayList<Graph.Node> originalAdjList = originalGraph.getAdjacentNodes(i);
-            if (originalAdjList != null) {
-                for (int j = 0; j < originalAdjList.size(); j++) {
-                    Graph.Node originalNode = originalAdjList.get(j);
-                    graph.addEdge(i, originalNode.getDest(), originalNode.getWeight());
-                }
+            for (int e = csr.edgeStart(i); e < csr.edgeEnd(i); e++) {
+                graph.addEdge(i, csr.edgeTarget(e), csr.edgeWeight(e));
             }
         }
     }
@@ -56,7 +66,11 @@ public class EvacuationSystem {
                 case 3 -> handleBlockRoad(scanner);
                 case 4 -> handleUnblockRoad(scanner);
                 case 5 -> handleCalculateRoutes();
-                case 6 -> {
+                case 6 -> handleFindRoute(scanner);
+                case 7 -> graph.printVulnerabilities(graph.findVulnerabilities());
+                case 8 -> handleImportScenario(scanner);
+                case 9 -> handleDispatchLoadTest(scanner);
+                case 10 -> {
                     return;
                 }
                 default -> System.out.println("Invalid choice. Please try again.");
@@ -71,7 +85,11 @@ public class EvacuationSystem {
         System.out.println("3. Block Road");
         System.out.println("4. Unblock Road");
         System.out.println("5. Calculate Evacuation Routes");
-        System.out.println("6. Exit");
+        System.out.println("6. Find Route to Incident");
+        System.out.println("7. Scan for Single Points of Failure");
+        System.out.println("8. Import Damage Scenario");
+        System.out.println("9. Run Dispatch Load Test");
+        System.out.println("10. Exit");
         System.out.print("Enter your choice: ");
     }
 
@@ -82,7 +100,10 @@ public class EvacuationSystem {
         int dest = scanner.nextInt() - 1;
 
         if (graph.blockRoad(src, dest)) {
+            hierarchy.customize();
+            updateEvacuationRoutes(src, dest);
             System.out.println("Road blocked successfully!");
+            printVulnerabilitySummary();
         } else {
             System.out.println("Failed to block road. Please check node numbers.");
         }
@@ -95,12 +116,103 @@ public class EvacuationSystem {
         int dest = scanner.nextInt() - 1;
 
         if (graph.unblockRoad(src, dest)) {
+            hierarchy.customize();
+            updateEvacuationRoutes(src, dest);
             System.out.println("Road unblocked successfully!");
+            printVulnerabilitySummary();
         } else {
             System.out.println("Failed to unblock road. Please check node numbers.");
         }
     }
 
+    /**
+     * Repairs the kept evacuation routes after the roads between two nodes changed. Only the
+     * part of the tree that depends on these roads is settled again.
+     */
+    private void updateEvacuationRoutes(int src, int dest) {
+        if (evacuationRoutes != null) {
+            int updated = evacuationRoutes.roadsChanged(src, dest);
+            System.out.println("Evacuation routes updated for " + updated + " nodes.");
+        }
+    }
+
+    /**
+     * Rescans the network after a damage update and reports how many single points of failure
+     * remain.
+     */
+    private void printVulnerabilitySummary() {
+        Biconnectivity analysis = graph.findVulnerabilities();
+        System.out.println("Critical roads: " + analysis.getNumberOfBridges()
+                + ", critical junctions: " + analysis.getArticulationPoints().length);
+    }
+
+    /**
+     * Applies a damage survey from a scenario file as one batch, so the routing structures
+     * are refreshed once for the whole file.
+     */
+    private void handleImportScenario(Scanner scanner) {
+        System.out.println("\nEnter scenario file path: ");
+        String path = scanner.nextLine().trim();
+        try {
+            RoadUpdateBatch batch = ScenarioFile.read(Path.of(path), nodeNames);
+            graph.apply(batch);
+            hierarchy.customize();
+            if (evacuationRoutes != null) {
+                evacuationRoutes.apply(batch);
+            }
+            System.out.println("Applied " + batch.size() + " road updates.");
+            printVulnerabilitySummary();
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Scenario not applied: " + e.getMessage());
+        }
+    }
+
+    private void handleFindRoute(Scanner scanner) {
+        System.out.println("\nEnter start node number (1-" + nodeNames.length + "): ");
+        int src = scanner.nextInt() - 1;
+        System.out.println("Enter incident node number (1-" + nodeNames.length + "): ");
+        int dest = scanner.nextInt() - 1;
+
+        if (src >= 0 && src < nodeNames.length && dest >= 0 && dest < nodeNames.length) {
+            graph.printRoute(hierarchy.findRoute(src, dest));
+        } else {
+            System.out.println("Invalid node number!");
+        }
+    }
+
+    /**
+     * Sends a burst of random route queries to a {@link RoutingService} at once and reports
+     * how fast they were answered.
+     */
+    private void handleDispatchLoadTest(Scanner scanner) {
+        System.out.println("\nEnter number of simultaneous route requests: ");
+        int count = scanner.nextInt();
+        scanner.nextLine();
+        if (count < 1) {
+            System.out.println("Invalid number of requests!");
+            return;
+        }
+
+        Random random = new Random();
+        try (RoutingService service = new RoutingService(graph)) {
+            CompletableFuture<?>[] requests = new CompletableFuture<?>[count];
+            for (int i = 0; i < count; i++) {
+                requests[i] = service.findRoute(random.nextInt(nodeNames.length), random.nextInt(nodeNames.length));
+            }
+            CompletableFuture.allOf(requests).join();
+
+            RoutingService.Statistics statistics = service.getStatistics();
+            System.out.println("Answered " + statistics.completedQueries() + " requests on "
+                    + (service.usesVirtualThreads() ? "virtual threads" : "a fork/join pool"));
+            if (statistics.failedQueries() > 0) {
+                System.out.println("Failed requests: " + statistics.failedQueries());
+            }
+            System.out.printf("Throughput: %.0f requests/s%n", statistics.queriesPerSecond());
+            System.out.printf("Latency: mean %.0f µs, p99 <= %d µs, max %d µs%n",
+                    statistics.meanLatencyMicros(), statistics.p99LatencyMicros(), statistics.maxLatencyMicros());
+        }
+    }
+
     private void handleSetPriorityNode(Scanner scanner) {
         System.out.println("\nAvailable Nodes:");
         for (int i = 0; i < nodeNames.length; i++) {
@@ -140,7 +252,17 @@ public class EvacuationSystem {
     private void handleCalculateRoutes() {
         int startNode = findFirstPriorityNode();
         if (startNode != -1) {
-            graph.calculateEvacuationRoutes(startNode);
+            ShortestPathTree tree = routeCache.get(startNode, graph.getVersion());
+            if (tree == null) {
+                if (evacuationRoutes == null || evacuationRoutes.getSource() != startNode) {
+                    evacuationRoutes = new DynamicShortestPathTree(graph, startNode);
+                }
+                tree = evacuationRoutes.toTree();
+                routeCache.put(startNode, graph.getVersion(), tree);
+            }
+            graph.printEvacuationRoutes(tree);
+            System.out.println("Route cache: " + routeCache.getHits() + " hits, "
+                    + routeCache.getMisses() + " misses");
         } else {
             System.out.println("No priority node set. Please set a priority node first.");
         }
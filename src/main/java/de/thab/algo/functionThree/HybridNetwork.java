@@ -0,0 +1,209 @@
+package de.thab.algo.functionThree;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.GraphBuilder;
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.queue.CustomPriorityQueue;
+
+import java.util.Arrays;
+
+/**
+ * Road and water network for combined car and boat routes across flooded areas.
+ *
+ * Every node exists once per mode of travel. The state of node v in mode m is the vertex
+ * {@code 2 * v + m} of a single {@link CompactGraph}: roads connect car states, waterways
+ * connect boat states, and a dock links the car and boat state of its node in both
+ * directions with its transfer penalty. One Dijkstra search over these states finds the
+ * best combination of driving, transferring and sailing, at the cost of a plain road
+ * search over twice the nodes. Both states of a node are neighbours in memory.
+ *
+ * Like {@link EvacuationGraph}, roads and waterways are directed.
+ */
+public class HybridNetwork {
+    public static final int CAR = 0;
+    public static final int BOAT = 1;
+
+    private final int numberOfNodes;
+    private final GraphBuilder builder;
+    // CSR form of the state graph, rebuilt lazily after a change
+    private CompactGraph states;
+
+    /**
+     * @param numberOfNodes The number of nodes of the map.
+     */
+    public HybridNetwork(int numberOfNodes) {
+        this.numberOfNodes = numberOfNodes;
+        builder = new GraphBuilder(2 * numberOfNodes);
+        builder.setMergeParallelEdges(true);
+    }
+
+    /**
+     * Creates the land layer from the roads of an evacuation graph that are open now; blocked
+     * roads, e.g. flooded streets, are left out.
+     *
+     * @param graph The evacuation graph.
+     * @return A network without waterways or docks yet.
+     */
+    public static HybridNetwork fromRoads(EvacuationGraph graph) {
+        HybridNetwork hybrid = new HybridNetwork(graph.getNumberOfNodes());
+        NetworkSnapshot state = graph.snapshot();
+        CompactGraph roads = state.network();
+        for (int u = 0; u < roads.getNumberOfNodes(); u++) {
+            for (int e = roads.edgeStart(u); e < roads.edgeEnd(u); e++) {
+                if (state.isOpen(roads.edgeId(e))) {
+                    hybrid.addRoad(u, roads.edgeTarget(e), roads.edgeWeight(e));
+                }
+            }
+        }
+        return hybrid;
+    }
+
+    private static int state(int node, int mode) {
+        return node << 1 | mode;
+    }
+
+    private void add(int src, int dest, int mode, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Travel time must be positive");
+        }
+        if (src < 0 || src >= numberOfNodes || dest < 0 || dest >= numberOfNodes) {
+            throw new IllegalArgumentException("Node outside 0.." + (numberOfNodes - 1));
+        }
+        builder.addEdge(state(src, mode), state(dest, mode), weight);
+        states = null;
+    }
+
+    /**
+     * @param src    The node the road starts at.
+     * @param dest   The node the road leads to.
+     * @param weight The travel time by car.
+     */
+    public void addRoad(int src, int dest, int weight) {
+        add(src, dest, CAR, weight);
+    }
+
+    /**
+     * @param src    The node the waterway starts at.
+     * @param dest   The node the waterway leads to.
+     * @param weight The travel time by boat.
+     */
+    public void addWaterway(int src, int dest, int weight) {
+        add(src, dest, BOAT, weight);
+    }
+
+    /**
+     * Lets routes change between car and boat at a node.
+     *
+     * @param node    The node of the dock.
+     * @param penalty The time it takes to change the mode, zero or more.
+     */
+    public void addDock(int node, int penalty) {
+        if (penalty < 0) {
+            throw new IllegalArgumentException("Transfer penalty must not be negative");
+        }
+        if (node < 0 || node >= numberOfNodes) {
+            throw new IllegalArgumentException("Node outside 0.." + (numberOfNodes - 1));
+        }
+        builder.addEdge(state(node, CAR), state(node, BOAT), penalty);
+        builder.addEdge(state(node, BOAT), state(node, CAR), penalty);
+        states = null;
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    private CompactGraph states() {
+        if (states == null) {
+            states = builder.build(null);
+        }
+        return states;
+    }
+
+    /**
+     * Finds the fastest route from a node, starting by car, to a node reached in either mode.
+     *
+     * @param source The start node.
+     * @param target The destination node.
+     * @return The route, unreachable if neither mode gets there.
+     */
+    public HybridRoute findRoute(int source, int target) {
+        return findRoute(source, target, SearchContext.current(2 * numberOfNodes));
+    }
+
+    /**
+     * Finds the fastest route in the given search workspace.
+     *
+     * The search stops at the first settled state of the target, which is the closer of its
+     * two modes.
+     *
+     * @param source  The start node.
+     * @param target  The destination node.
+     * @param context The workspace to run the search in.
+     * @return The route, unreachable if neither mode gets there.
+     */
+    public HybridRoute findRoute(int source, int target, SearchContext context) {
+        if (source < 0 || source >= numberOfNodes || target < 0 || target >= numberOfNodes) {
+            throw new IllegalArgumentException("Node outside 0.." + (numberOfNodes - 1));
+        }
+        CompactGraph csr = states();
+        context.ensureCapacity(2 * numberOfNodes);
+        context.start();
+        int start = state(source, CAR);
+        context.update(start, 0, -1);
+        CustomPriorityQueue pq = context.getQueue();
+        pq.enqueue(start, 0);
+
+        int settledCount = 0;
+        while (!pq.isEmpty()) {
+            int u = pq.dequeueVertex();
+            context.settle(u);
+            settledCount++;
+            if (u >> 1 == target) {
+                return unpack(context, source, target, u, settledCount);
+            }
+            int distance = context.getDistance(u);
+
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                int v = csr.edgeTarget(e);
+                if (context.isSettled(v)) continue;
+
+                int newDist = distance + csr.edgeWeight(e);
+                if (newDist < context.getDistance(v)) {
+                    context.update(v, newDist, u);
+                    pq.enqueueOrDecreaseKey(v, newDist);
+                }
+            }
+        }
+        return new HybridRoute(source, target, Integer.MAX_VALUE, new int[0], new int[0], settledCount);
+    }
+
+    /**
+     * Turns the chain of states into nodes and leg modes; a transfer stays at its node and
+     * only changes the mode of the next leg.
+     */
+    private static HybridRoute unpack(SearchContext context, int source, int target, int end, int settledCount) {
+        int length = 0;
+        for (int s = end; s != -1; s = context.getParent(s)) {
+            length++;
+        }
+        int[] chain = new int[length];
+        for (int s = end, i = length - 1; s != -1; s = context.getParent(s), i--) {
+            chain[i] = s;
+        }
+
+        int[] path = new int[length];
+        int[] legModes = new int[Math.max(0, length - 1)];
+        int nodes = 0;
+        path[nodes++] = chain[0] >> 1;
+        for (int i = 1; i < length; i++) {
+            int node = chain[i] >> 1;
+            if (node != chain[i - 1] >> 1) {
+                legModes[nodes - 1] = chain[i] & 1;
+                path[nodes++] = node;
+            }
+        }
+        return new HybridRoute(source, target, context.getDistance(end), Arrays.copyOf(path, nodes),
+                Arrays.copyOf(legModes, nodes - 1), settledCount);
+    }
+}
@@ -0,0 +1,42 @@
+package de.thab.algo.functionThree;
+
+/**
+ * Result of a car and boat route query: a {@link Route} that also records how every leg is
+ * travelled.
+ */
+public class HybridRoute extends Route {
+    private final int[] legModes;
+
+    /**
+     * @param source       The start node.
+     * @param target       The destination node.
+     * @param distance     The length of the route including transfer penalties.
+     * @param path         The nodes of the route, empty if there is none.
+     * @param legModes     The mode of the leg from path[i] to path[i + 1], see {@link HybridNetwork#CAR}.
+     * @param settledCount The number of (node, mode) states the query settled.
+     */
+    public HybridRoute(int source, int target, int distance, int[] path, int[] legModes, int settledCount) {
+        super(source, target, distance, path, settledCount);
+        this.legModes = legModes;
+    }
+
+    /**
+     * @return The mode of every leg, one fewer than there are nodes on the path.
+     */
+    public int[] getLegModes() {
+        return legModes;
+    }
+
+    /**
+     * @return The number of times the route changes between car and boat.
+     */
+    public int getTransfers() {
+        int transfers = 0;
+        for (int i = 1; i < legModes.length; i++) {
+            if (legModes[i] != legModes[i - 1]) {
+                transfers++;
+            }
+        }
+        return transfers;
+    }
+}
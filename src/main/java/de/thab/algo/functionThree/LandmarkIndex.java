@@ -0,0 +1,234 @@
+package de.thab.algo.functionThree;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
+import de.thab.algo.abstractdatastructures.queue.CustomPriorityQueue;
+
+
+/**
+ * Precomputed landmark distances for A* routing with the ALT technique
+ * (A*, landmarks and triangle inequality).
+ *
+ * For every landmark L the index stores d(L, v) and d(v, L) for all nodes v. The triangle
+ * inequality then gives a lower bound on the remaining distance from v to the target t:
+ * <pre>
+ * d(v, t) &gt;= d(v, L) - d(t, L)   and   d(v, t) &gt;= d(L, t) - d(L, v)
+ * </pre>
+ * A* guided by the largest of these bounds settles far fewer nodes than Dijkstra.
+ *
+ * The tables are computed on the network with every road open. Blocking a road can only
+ * make routes longer, so the bounds stay valid under closures. Changed travel times, e.g.
+ * from {@link EvacuationGraph#apply(RoadUpdateBatch)}, are not covered: a faster road could
+ * make a bound overestimate. They change the fingerprint, so {@link #matches(EvacuationGraph)}
+ * fails and the index has to be rebuilt.
+ */
+public class LandmarkIndex {
+    public static final int DEFAULT_LANDMARKS = 8;
+
+    private final int numberOfNodes;
+    private final int[] landmarks;
+    private final long fingerprint;
+    // node-major tables: the entries of node v are at [v * k, (v + 1) * k)
+    private final int[] fromLandmark;
+    private final int[] toLandmark;
+    // last network the fingerprint was checked against; closures keep the network, so most
+    // queries skip the check
+    private volatile CompactGraph verifiedNetwork;
+
+    private LandmarkIndex(int numberOfNodes, int[] landmarks, long fingerprint,
+                          int[] fromLandmark, int[] toLandmark) {
+        this.numberOfNodes = numberOfNodes;
+        this.landmarks = landmarks;
+        this.fingerprint = fingerprint;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Chooses landmarks and computes their distance tables.
+     *
+     * Landmarks are picked greedily: each new landmark is the node farthest from all
+     * landmarks chosen so far, which spreads them over the edge of the map where they give
+     * the tightest bounds.
+     *
+     * @param graph         The evacuation graph.
+     * @param landmarkCount The number of landmarks to choose.
+     * @return The landmark index.
+     */
+    public static LandmarkIndex build(EvacuationGraph graph, int landmarkCount) {
+        NetworkSnapshot state = graph.snapshot();
+        CompactGraph outgoing = state.network();
+        CompactGraph incoming = state.reverseNetwork();
+        int n = outgoing.getNumberOfNodes();
+        int k = Math.min(landmarkCount, n);
+        SearchContext context = SearchContext.current(n);
+
+        int[] chosen = new int[k];
+        int[] fromLandmark = new int[n * k];
+        int[] toLandmark = new int[n * k];
+        long[] closeness = new long[n];
+
+        // start from the node farthest away from node 0
+        int next = n == 0 ? 0 : farthest(outgoing.dijkstra(0, context), closeness, true);
+        for (int i = 0; i < k; i++) {
+            chosen[i] = next;
+            ShortestPathTree from = outgoing.dijkstra(next, context);
+            for (int v = 0; v < n; v++) {
+                fromLandmark[v * k + i] = from.getDistance(v);
+            }
+            next = farthest(from, closeness, i == 0);
+
+            ShortestPathTree to = incoming.dijkstra(chosen[i], context);
+            for (int v = 0; v < n; v++) {
+                toLandmark[v * k + i] = to.getDistance(v);
+            }
+        }
+        return new LandmarkIndex(n, chosen, fingerprint(outgoing), fromLandmark, toLandmark);
+    }
+
+    /**
+     * Folds the distances of a new landmark into the distance to the nearest landmark and
+     * returns the node for which that distance is largest. Unreachable nodes count as
+     * infinitely far, so every connected part of the map gets a landmark.
+     */
+    private static int farthest(ShortestPathTree tree, long[] closeness, boolean first) {
+        int best = 0;
+        for (int v = 0; v < closeness.length; v++) {
+            long distance = tree.isReachable(v) ? tree.getDistance(v) : Long.MAX_VALUE;
+            closeness[v] = first ? distance : Math.min(closeness[v], distance);
+            if (closeness[v] > closeness[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param graph The evacuation graph.
+     * @return true if the index was built for the current network of the graph.
+     */
+    public boolean matches(EvacuationGraph graph) {
+        return matches(graph.network());
+    }
+
+    private boolean matches(CompactGraph network) {
+        return network.getNumberOfNodes() == numberOfNodes && fingerprint(network) == fingerprint;
+    }
+
+    /**
+     * Hashes the structure and the weights of a network, so an index is not used with
+     * travel times it was not built for.
+     */
+    private static long fingerprint(CompactGraph network) {
+        long hash = 1125899906842597L;
+        for (int u = 0; u < network.getNumberOfNodes(); u++) {
+            for (int e = network.edgeStart(u); e < network.edgeEnd(u); e++) {
+                hash = 31 * hash + u;
+                hash = 31 * hash + network.edgeTarget(e);
+                hash = 31 * hash + network.edgeWeight(e);
+            }
+        }
+        return hash;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Computes the ALT lower bound on the distance from a node to the target.
+     *
+     * @param v      The node.
+     * @param target The target node.
+     * @return A lower bound on d(v, target), 0 if no landmark gives information.
+     */
+    int lowerBound(int v, int target) {
+        int k = landmarks.length;
+        int vBase = v * k;
+        int tBase = target * k;
+        int bound = 0;
+        for (int i = 0; i < k; i++) {
+            int vTo = toLandmark[vBase + i];
+            int tTo = toLandmark[tBase + i];
+            if (vTo != Integer.MAX_VALUE && tTo != Integer.MAX_VALUE) {
+                bound = Math.max(bound, vTo - tTo);
+            }
+            int vFrom = fromLandmark[vBase + i];
+            int tFrom = fromLandmark[tBase + i];
+            if (vFrom != Integer.MAX_VALUE && tFrom != Integer.MAX_VALUE) {
+                bound = Math.max(bound, tFrom - vFrom);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Finds the fastest open route with A* guided by the landmark bounds.
+     *
+     * @param graph  The evacuation graph the index was built for.
+     * @param source The start node.
+     * @param target The destination node.
+     * @return The route, unreachable if every route is blocked.
+     */
+    public Route findRoute(EvacuationGraph graph, int source, int target) {
+        return findRoute(graph, source, target, SearchContext.current(numberOfNodes));
+    }
+
+    /**
+     * Finds the fastest open route with A* in the given search workspace.
+     *
+     * The landmark bounds are consistent, so every node is settled at most once and the
+     * queue key is the tentative distance plus the bound.
+     *
+     * @param graph   The evacuation graph the index was built for.
+     * @param source  The start node.
+     * @param target  The destination node.
+     * @param context The workspace to run the search in.
+     * @return The route, unreachable if every route is blocked.
+     * @throws IllegalStateException if travel times or roads changed since the index was
+     *                               built, since the bounds could then overestimate.
+     */
+    public Route findRoute(EvacuationGraph graph, int source, int target, SearchContext context) {
+        NetworkSnapshot state = graph.snapshot();
+        CompactGraph csr = state.network();
+        if (csr != verifiedNetwork) {
+            if (!matches(csr)) {
+                throw new IllegalStateException("Landmark index does not match the network, rebuild it");
+            }
+            verifiedNetwork = csr;
+        }
+        context.ensureCapacity(numberOfNodes);
+        context.start();
+        context.update(source, 0, -1);
+
+        CustomPriorityQueue pq = context.getQueue();
+        pq.enqueue(source, lowerBound(source, target));
+
+        int settledCount = 0;
+        while (!pq.isEmpty()) {
+            int u = pq.dequeueVertex();
+            context.settle(u);
+            settledCount++;
+            if (u == target) {
+                return new Route(source, target, context.getDistance(u), context.toTree(source, numberOfNodes,
+                        settledCount).getPath(target), settledCount);
+            }
+            int distance = context.getDistance(u);
+
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                if (!state.isOpen(csr.edgeId(e))) continue;
+
+                int v = csr.edgeTarget(e);
+                if (context.isSettled(v)) continue;
+
+                int newDist = distance + csr.edgeWeight(e);
+                if (newDist < context.getDistance(v)) {
+                    context.update(v, newDist, u);
+                    pq.enqueueOrDecreaseKey(v, newDist + lowerBound(v, target));
+                }
+            }
+        }
+        return Route.unreachable(source, target, settledCount);
+    }
+}
@@ -0,0 +1,115 @@
+package de.thab.algo.functionThree;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.EdgeIndex;
+
+/**
+ * Immutable state of an {@link EvacuationGraph}: the compiled road network with its travel
+ * times and the set of closed roads at one version.
+ *
+ * Writers never change a published snapshot; they publish a new one, so a query that pins a
+ * snapshot at its start sees one consistent network however many closures stream in while it
+ * runs. Closures are stored as a bitset split into chunks of {@value #CHUNK_BITS} roads, and
+ * a new snapshot copies only the chunks it changes and shares the rest, as well as the
+ * network, with its predecessor.
+ */
+public final class NetworkSnapshot {
+    static final int CHUNK_SHIFT = 12;
+    static final int CHUNK_BITS = 1 << CHUNK_SHIFT;
+
+    private final CompactGraph network;
+    // closure bits per chunk of road ids; a missing chunk has no closed road
+    private final long[][] closures;
+    private final long version;
+    // derived structures, built on first use; racing threads build equal copies
+    private volatile CompactGraph reverseNetwork;
+    private volatile EdgeIndex roadIndex;
+
+    NetworkSnapshot(CompactGraph network, long[][] closures, long version) {
+        this(network, null, null, closures, version);
+    }
+
+    private NetworkSnapshot(CompactGraph network, CompactGraph reverseNetwork, EdgeIndex roadIndex,
+                            long[][] closures, long version) {
+        this.network = network;
+        this.reverseNetwork = reverseNetwork;
+        this.roadIndex = roadIndex;
+        this.closures = closures;
+        this.version = version;
+    }
+
+    /**
+     * @return A snapshot of the same network with other closures.
+     */
+    NetworkSnapshot withClosures(long[][] closures, long version) {
+        return new NetworkSnapshot(network, reverseNetwork, roadIndex, closures, version);
+    }
+
+    long[][] closures() {
+        return closures;
+    }
+
+    /**
+     * @return The compiled road network, parallel roads collapsed to the shortest one.
+     */
+    CompactGraph network() {
+        return network;
+    }
+
+    /**
+     * @return The compiled network with every road reversed, edge ids kept.
+     */
+    CompactGraph reverseNetwork() {
+        CompactGraph reverse = reverseNetwork;
+        if (reverse == null) {
+            reverse = network.transpose();
+            reverseNetwork = reverse;
+        }
+        return reverse;
+    }
+
+    /**
+     * @param edgeId The id of a road.
+     * @return true if the road is not blocked.
+     */
+    boolean isOpen(int edgeId) {
+        int chunk = edgeId >>> CHUNK_SHIFT;
+        if (chunk >= closures.length || closures[chunk] == null) {
+            return true;
+        }
+        return (closures[chunk][(edgeId & CHUNK_BITS - 1) >>> 6] & 1L << edgeId) == 0;
+    }
+
+    /**
+     * Finds a road in O(1) through the reverse index of the network.
+     *
+     * @param src  The node the road starts at.
+     * @param dest The node the road leads to.
+     * @return The id of the road, or -1 if there is none.
+     */
+    public int findRoad(int src, int dest) {
+        EdgeIndex index = roadIndex;
+        if (index == null) {
+            index = new EdgeIndex(network);
+            roadIndex = index;
+        }
+        return index.find(src, dest);
+    }
+
+    /**
+     * @param src  The node the road starts at.
+     * @param dest The node the road leads to.
+     * @return true if the road exists and is open in this snapshot.
+     */
+    public boolean isOpen(int src, int dest) {
+        int road = findRoad(src, dest);
+        return road != -1 && isOpen(road);
+    }
+
+    /**
+     * @return The version of the graph this snapshot was published at.
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,89 @@
+package de.thab.algo.functionThree;
+
+import java.util.Arrays;
+
+/**
+ * A list of road closures, reopenings and travel time changes that is applied to an
+ * {@link EvacuationGraph} in one step with {@link EvacuationGraph#apply(RoadUpdateBatch)}.
+ *
+ * Like a single block or unblock, every update concerns the roads between two nodes in both
+ * directions. Updates are kept in primitive arrays and applied in the order they were added.
+ */
+public final class RoadUpdateBatch {
+    static final byte CLOSE = 0;
+    static final byte REOPEN = 1;
+    static final byte SET_WEIGHT = 2;
+
+    private byte[] kinds;
+    private int[] sources;
+    private int[] targets;
+    private int[] weights;
+    private int size;
+
+    public RoadUpdateBatch() {
+        this(16);
+    }
+
+    /**
+     * @param expectedUpdates The number of updates to reserve space for.
+     */
+    public RoadUpdateBatch(int expectedUpdates) {
+        int capacity = Math.max(1, expectedUpdates);
+        kinds = new byte[capacity];
+        sources = new int[capacity];
+        targets = new int[capacity];
+        weights = new int[capacity];
+    }
+
+    public void close(int src, int dest) {
+        add(CLOSE, src, dest, 0);
+    }
+
+    public void reopen(int src, int dest) {
+        add(REOPEN, src, dest, 0);
+    }
+
+    /**
+     * @param src    The first node.
+     * @param dest   The second node.
+     * @param weight The new travel time, greater than zero.
+     */
+    public void setWeight(int src, int dest, int weight) {
+        add(SET_WEIGHT, src, dest, weight);
+    }
+
+    void add(byte kind, int src, int dest, int weight) {
+        if (size == kinds.length) {
+            int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        kinds[size] = kind;
+        sources[size] = src;
+        targets[size] = dest;
+        weights[size] = weight;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    byte kind(int update) {
+        return kinds[update];
+    }
+
+    int source(int update) {
+        return sources[update];
+    }
+
+    int target(int update) {
+        return targets[update];
+    }
+
+    int weight(int update) {
+        return weights[update];
+    }
+}
@@ -0,0 +1,66 @@
+package de.thab.algo.functionThree;
+
+/**
+ * Result of a point-to-point route query.
+ */
+public class Route {
+    private final int source;
+    private final int target;
+    private final int distance;
+    private final int[] path;
+    private final int settledCount;
+
+    /**
+     * Constructs a Route.
+     *
+     * @param source       The start node.
+     * @param target       The destination node.
+     * @param distance     The length of the route, or Integer.MAX_VALUE if there is none.
+     * @param path         The nodes of the route from source to target, empty if there is none.
+     * @param settledCount The number of nodes the query settled.
+     */
+    public Route(int source, int target, int distance, int[] path, int settledCount) {
+        this.source = source;
+        this.target = target;
+        this.distance = distance;
+        this.path = path;
+        this.settledCount = settledCount;
+    }
+
+    /**
+     * @param source       The start node.
+     * @param target       The destination node.
+     * @param settledCount The number of nodes the query settled.
+     * @return A route that records that the target is unreachable.
+     */
+    static Route unreachable(int source, int target, int settledCount) {
+        return new Route(source, target, Integer.MAX_VALUE, new int[0], settledCount);
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    public int[] getPath() {
+        return path;
+    }
+
+    public boolean isReachable() {
+        return distance != Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return The number of nodes the query settled, a measure of the work it did.
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+}
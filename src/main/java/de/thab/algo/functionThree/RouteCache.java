@@ -0,0 +1,93 @@
+package de.thab.algo.functionThree;
+
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of shortest path trees, keyed by source node and {@link EvacuationGraph#getVersion()}.
+ *
+ * A tree is only returned for the graph version it was computed for, so a closure or reopening
+ * never serves an outdated route. Trees of older versions are never hit again and drop out
+ * as the least recently used entries once the cache is full.
+ */
+public final class RouteCache {
+    private record Key(int source, long version) {
+    }
+
+    private final Map<Key, ShortestPathTree> trees;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param capacity The maximum number of trees kept.
+     */
+    public RouteCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ShortestPathTree> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param source  The source node.
+     * @param version The current version of the graph.
+     * @return The cached tree, or null if there is none for this source and version.
+     */
+    public ShortestPathTree get(int source, long version) {
+        ShortestPathTree tree = trees.get(new Key(source, version));
+        if (tree == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return tree;
+    }
+
+    /**
+     * Returns the cached tree or computes it with Dijkstra's algorithm.
+     *
+     * @param graph  The evacuation graph.
+     * @param source The source node.
+     * @return The shortest path tree of the graph's current version.
+     */
+    public ShortestPathTree get(EvacuationGraph graph, int source) {
+        ShortestPathTree tree = get(source, graph.getVersion());
+        if (tree == null) {
+            tree = graph.calculateEvacuationRoutes(source).detach();
+            put(source, graph.getVersion(), tree);
+        }
+        return tree;
+    }
+
+    /**
+     * @param source  The source node.
+     * @param version The graph version the tree was computed for.
+     * @param tree    The tree; detached, since it outlives the search that created it.
+     */
+    public void put(int source, long version, ShortestPathTree tree) {
+        trees.put(new Key(source, version), tree.detach());
+    }
+
+    public void clear() {
+        trees.clear();
+    }
+
+    public int size() {
+        return trees.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,213 @@
+package de.thab.algo.functionThree;
+
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Answers route and evacuation queries concurrently, e.g. for a dispatch console.
+ *
+ * Queries run on virtual threads when the runtime has them (Java 21 and later) and on a
+ * fork/join pool of the given parallelism otherwise. Every query pins the current
+ * {@link NetworkSnapshot} of the graph, so closures may be applied while queries run.
+ *
+ * Search workspaces are not tied to threads, since every virtual thread is new, but kept in
+ * a pool of one pair per parallel query: a query borrows a pair, which costs nothing once
+ * the pool is warm, and waits if all are in use, which bounds memory at any load.
+ *
+ * Latency is measured from submission to completion, so it includes waiting for a worker.
+ */
+public final class RoutingService implements AutoCloseable {
+    // latency buckets of powers of two microseconds
+    private static final int BUCKETS = 40;
+
+    private final EvacuationGraph graph;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final BlockingQueue<SearchContext[]> workspaces;
+
+    private final long startedAt;
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Latency and throughput of the queries completed so far. Queries that failed are only
+     * counted, they do not enter throughput or latency.
+     *
+     * @param completedQueries The number of queries that returned a result.
+     * @param failedQueries    The number of queries that threw an exception.
+     * @param queriesPerSecond Completed queries per second since the service started.
+     * @param meanLatencyMicros The mean latency in microseconds.
+     * @param p99LatencyMicros  An upper bound of the 99th percentile latency in microseconds.
+     * @param maxLatencyMicros  The highest latency in microseconds.
+     */
+    public record Statistics(long completedQueries, long failedQueries, double queriesPerSecond,
+                             double meanLatencyMicros, long p99LatencyMicros, long maxLatencyMicros) {
+    }
+
+    /**
+     * Starts a service with one parallel query per available processor.
+     *
+     * @param graph The evacuation graph.
+     */
+    public RoutingService(EvacuationGraph graph) {
+        this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param graph       The evacuation graph.
+     * @param parallelism The number of queries that search at the same time.
+     */
+    public RoutingService(EvacuationGraph graph, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.graph = graph;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        virtualThreads = virtual != null;
+        executor = virtualThreads ? virtual : new ForkJoinPool(parallelism);
+        workspaces = new ArrayBlockingQueue<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            // contexts grow on first use, so idle workspaces cost nothing
+            workspaces.add(new SearchContext[]{new SearchContext(0), new SearchContext(0)});
+        }
+        startedAt = System.nanoTime();
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor, which only exists on Java 21 and
+     * later, without requiring it at compile time.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if queries run on virtual threads, false if on a fork/join pool.
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Finds the fastest open route between two nodes.
+     *
+     * @param source The start node.
+     * @param target The destination node.
+     * @return The route once it is computed.
+     */
+    public CompletableFuture<Route> findRoute(int source, int target) {
+        checkNode(source);
+        checkNode(target);
+        return submit(workspace -> graph.findRoute(source, target, workspace[0], workspace[1]));
+    }
+
+    /**
+     * Computes the evacuation routes from a node to every other node.
+     *
+     * @param source The node to route from.
+     * @return The shortest path tree, detached from the workspace it was computed in.
+     */
+    public CompletableFuture<ShortestPathTree> calculateEvacuationRoutes(int source) {
+        checkNode(source);
+        return submit(workspace -> graph.calculateEvacuationRoutes(source, workspace[0]).detach());
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= graph.getNumberOfNodes()) {
+            throw new IllegalArgumentException("Node " + node + " outside 0.." + (graph.getNumberOfNodes() - 1));
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Function<SearchContext[], T> query) {
+        long submitted = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            SearchContext[] workspace;
+            try {
+                workspace = workspaces.take();
+            } catch (InterruptedException e) {
+                failed.incrementAndGet();
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            T result;
+            try {
+                result = query.apply(workspace);
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                throw e;
+            } finally {
+                workspaces.add(workspace);
+            }
+            record(System.nanoTime() - submitted);
+            return result;
+        }, executor);
+    }
+
+    private void record(long latency) {
+        completed.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        long micros = Math.max(1, latency / 1000);
+        latencyBuckets.incrementAndGet(Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros)));
+    }
+
+    /**
+     * @return The latency and throughput of the queries completed so far, and the number of
+     *         failed ones.
+     */
+    public Statistics getStatistics() {
+        long count = completed.get();
+        double seconds = Math.max(1e-9, (System.nanoTime() - startedAt) / 1e9);
+        double mean = count == 0 ? 0 : totalLatency.get() / 1000.0 / count;
+
+        long p99 = 0;
+        long rank = (long) Math.ceil(count * 0.99);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS && count > 0; bucket++) {
+            seen += latencyBuckets.get(bucket);
+            if (seen >= rank) {
+                p99 = 2L << bucket;
+                break;
+            }
+        }
+        return new Statistics(count, failed.get(), count / seconds, mean,
+                Math.min(p99, maxLatency.get() / 1000 + 1), maxLatency.get() / 1000);
+    }
+
+    /**
+     * Stops accepting queries and waits for the running ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
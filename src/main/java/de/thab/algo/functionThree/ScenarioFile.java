@@ -0,0 +1,193 @@
+package de.thab.algo.functionThree;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes damage scenarios, lists of road updates for a {@link RoadUpdateBatch}.
+ *
+ * Two formats are read, told apart by their first four bytes:
+ * <ul>
+ *   <li>Text, one update per line: {@code close A B}, {@code open A B} or
+ *       {@code weight A B 42}, where A and B are node names, or 1-based node numbers if no
+ *       node has that name. Blank lines and lines starting with {@code #} are skipped.</li>
+ *   <li>Binary, as written by {@link #writeBinary(Path, RoadUpdateBatch)}: a magic number,
+ *       the number of updates and then per update its kind as a byte and the 0-based
+ *       source, target and weight as ints.</li>
+ * </ul>
+ * Both are read as a stream, so a survey of any size needs memory for the batch only.
+ */
+public final class ScenarioFile {
+    private static final int MAGIC = 0x53434E31; // "SCN1"
+
+    private ScenarioFile() {
+    }
+
+    /**
+     * Reads a scenario in either format.
+     *
+     * @param file      The file to read.
+     * @param nodeNames The node names of the map the scenario belongs to.
+     * @return The updates in file order.
+     * @throws IOException if the file cannot be read or contains an invalid update.
+     */
+    public static RoadUpdateBatch read(Path file, String[] nodeNames) throws IOException {
+        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            in.mark(4);
+            byte[] head = in.readNBytes(4);
+            in.reset();
+            boolean binary = head.length == 4
+                    && ((head[0] & 0xFF) << 24 | (head[1] & 0xFF) << 16 | (head[2] & 0xFF) << 8 | head[3] & 0xFF) == MAGIC;
+            return binary ? readBinary(in, nodeNames.length) : readText(in, nodeNames);
+        }
+    }
+
+    private static RoadUpdateBatch readBinary(InputStream stream, int numberOfNodes) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        in.readInt();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid number of updates " + count);
+        }
+        // the count is only trusted as far as the records really follow
+        RoadUpdateBatch batch = new RoadUpdateBatch(Math.min(count, 1 << 16));
+        try {
+            for (int i = 0; i < count; i++) {
+                byte kind = in.readByte();
+                int src = in.readInt();
+                int dest = in.readInt();
+                int weight = in.readInt();
+                if (kind < RoadUpdateBatch.CLOSE || kind > RoadUpdateBatch.SET_WEIGHT) {
+                    throw new IOException("Update " + (i + 1) + ": unknown kind " + kind);
+                }
+                if (src < 0 || src >= numberOfNodes || dest < 0 || dest >= numberOfNodes) {
+                    throw new IOException("Update " + (i + 1) + ": node outside 0.." + (numberOfNodes - 1));
+                }
+                batch.add(kind, src, dest, weight);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Scenario ends after " + batch.size() + " of " + count + " updates", e);
+        }
+        if (in.read() != -1) {
+            throw new IOException("Unexpected data after " + count + " updates");
+        }
+        return batch;
+    }
+
+    private static RoadUpdateBatch readText(InputStream stream, String[] nodeNames) throws IOException {
+        Map<String, Integer> nodes = new HashMap<>(nodeNames.length * 2);
+        for (int i = 0; i < nodeNames.length; i++) {
+            nodes.put(nodeNames[i], i);
+        }
+        RoadUpdateBatch batch = new RoadUpdateBatch();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = tokens(line);
+            byte kind = switch (parts[0].toLowerCase()) {
+                case "close" -> RoadUpdateBatch.CLOSE;
+                case "open" -> RoadUpdateBatch.REOPEN;
+                case "weight" -> RoadUpdateBatch.SET_WEIGHT;
+                default -> throw new IOException("Line " + lineNumber + ": unknown update " + parts[0]);
+            };
+            int expected = kind == RoadUpdateBatch.SET_WEIGHT ? 4 : 3;
+            if (parts.length != expected) {
+                throw new IOException("Line " + lineNumber + ": expected " + (expected - 1) + " values after " + parts[0]);
+            }
+            int src = node(parts[1], nodes, nodeNames.length, lineNumber);
+            int dest = node(parts[2], nodes, nodeNames.length, lineNumber);
+            int weight = 0;
+            if (kind == RoadUpdateBatch.SET_WEIGHT) {
+                try {
+                    weight = Integer.parseInt(parts[3]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Line " + lineNumber + ": invalid travel time " + parts[3], e);
+                }
+            }
+            batch.add(kind, src, dest, weight);
+        }
+        return batch;
+    }
+
+    /**
+     * Splits a trimmed line at runs of whitespace, without going through a regular expression.
+     */
+    private static String[] tokens(String line) {
+        String[] parts = new String[4];
+        int count = 0;
+        int start = 0;
+        int length = line.length();
+        while (start < length) {
+            int end = start;
+            while (end < length && !Character.isWhitespace(line.charAt(end))) {
+                end++;
+            }
+            if (count == parts.length) {
+                parts = Arrays.copyOf(parts, count * 2);
+            }
+            parts[count++] = line.substring(start, end);
+            start = end;
+            while (start < length && Character.isWhitespace(line.charAt(start))) {
+                start++;
+            }
+        }
+        return Arrays.copyOf(parts, count);
+    }
+
+    private static int node(String token, Map<String, Integer> nodes, int numberOfNodes, int lineNumber)
+            throws IOException {
+        Integer named = nodes.get(token);
+        if (named != null) {
+            return named;
+        }
+        try {
+            int number = Integer.parseInt(token);
+            if (number >= 1 && number <= numberOfNodes) {
+                return number - 1;
+            }
+        } catch (NumberFormatException ignored) {
+            // neither a name nor a number, reported below
+        }
+        throw new IOException("Line " + lineNumber + ": unknown node " + token);
+    }
+
+    /**
+     * Writes a scenario in the binary format.
+     *
+     * @param file  The file to write.
+     * @param batch The updates.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeBinary(Path file, RoadUpdateBatch batch) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                out.writeByte(batch.kind(i));
+                out.writeInt(batch.source(i));
+                out.writeInt(batch.target(i));
+                out.writeInt(batch.weight(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package de.thab.algo.functionThree;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
+import de.thab.algo.abstractdatastructures.queue.CustomPriorityQueue;
+
+import java.util.Arrays;
+
+/**
+ * Travel times that change over the day, e.g. while water rises, for the roads of an
+ * {@link EvacuationGraph}, and earliest arrival queries over them.
+ *
+ * The travel time of a road is a piecewise linear function of the departure time, given by
+ * breakpoints; before the first and after the last breakpoint it stays constant. Roads
+ * without a profile keep their static travel time. All breakpoints live in two flat arrays,
+ * with the slice of every road found through its road id.
+ *
+ * Profiles must be FIFO: leaving later never arrives earlier, so a travel time may drop by
+ * at most one unit per unit of time. Under this condition a Dijkstra search ordered by
+ * arrival time finds the earliest arrival at every node in a single pass.
+ */
+public final class TravelTimeProfiles {
+    // first breakpoint and number of breakpoints per road id, 0 breakpoints without profile
+    private int[] firstPoint;
+    private int[] pointCount;
+    // departure time and travel time of every breakpoint
+    private int[] times;
+    private int[] travelTimes;
+    private int size;
+
+    public TravelTimeProfiles() {
+        firstPoint = new int[16];
+        pointCount = new int[16];
+        times = new int[64];
+        travelTimes = new int[64];
+    }
+
+    /**
+     * Sets the profile of the roads between two nodes in both directions, as closures do.
+     * Parallel roads all get the profile, so it stays in effect whichever of them the graph
+     * keeps after a travel time change.
+     *
+     * @param graph       The evacuation graph.
+     * @param src         The first node.
+     * @param dest        The second node.
+     * @param departures  The breakpoint departure times, strictly increasing.
+     * @param travelTimes The travel time at each breakpoint, greater than zero.
+     * @return true if there is a road between the nodes.
+     * @throws IllegalArgumentException if the profile is invalid or not FIFO.
+     */
+    public boolean setProfile(EvacuationGraph graph, int src, int dest, int[] departures, int[] travelTimes) {
+        int forward = graph.findRoad(src, dest);
+        int backward = graph.findRoad(dest, src);
+        if (forward != -1) {
+            setProfileWithParallels(graph, forward, departures, travelTimes);
+        }
+        if (backward != -1) {
+            setProfileWithParallels(graph, backward, departures, travelTimes);
+        }
+        return forward != -1 || backward != -1;
+    }
+
+    private void setProfileWithParallels(EvacuationGraph graph, int road, int[] departures, int[] travelTimes) {
+        int id = road;
+        do {
+            setProfile(id, departures, travelTimes);
+            id = graph.nextParallelRoad(id);
+        } while (id != road);
+    }
+
+    /**
+     * Sets the profile of one road only, without its parallel roads. A replaced profile stays
+     * in the arrays unused, which is cheap as long as profiles are set once per forecast.
+     *
+     * @param roadId      The id of the road, see {@link EvacuationGraph#findRoad(int, int)}.
+     * @param departures  The breakpoint departure times, strictly increasing.
+     * @param travelTimes The travel time at each breakpoint, greater than zero.
+     * @throws IllegalArgumentException if the profile is invalid or not FIFO.
+     */
+    public void setProfile(int roadId, int[] departures, int[] travelTimes) {
+        if (roadId < 0) {
+            throw new IllegalArgumentException("Invalid road id " + roadId);
+        }
+        if (departures.length == 0 || departures.length != travelTimes.length) {
+            throw new IllegalArgumentException("A profile needs one travel time per breakpoint");
+        }
+        for (int i = 0; i < departures.length; i++) {
+            if (travelTimes[i] <= 0) {
+                throw new IllegalArgumentException("Travel time must be positive at breakpoint " + i);
+            }
+            if (i > 0 && departures[i] <= departures[i - 1]) {
+                throw new IllegalArgumentException("Breakpoints must be strictly increasing at " + i);
+            }
+            if (i > 0 && (long) travelTimes[i] - travelTimes[i - 1] < (long) departures[i - 1] - departures[i]) {
+                throw new IllegalArgumentException("Travel time drops faster than time passes at breakpoint " + i);
+            }
+        }
+
+        if (roadId >= firstPoint.length) {
+            int capacity = Math.max(roadId + 1, firstPoint.length * 2);
+            firstPoint = Arrays.copyOf(firstPoint, capacity);
+            pointCount = Arrays.copyOf(pointCount, capacity);
+        }
+        if (size + departures.length > times.length) {
+            int capacity = Math.max(size + departures.length, times.length * 2);
+            times = Arrays.copyOf(times, capacity);
+            this.travelTimes = Arrays.copyOf(this.travelTimes, capacity);
+        }
+        System.arraycopy(departures, 0, times, size, departures.length);
+        System.arraycopy(travelTimes, 0, this.travelTimes, size, departures.length);
+        firstPoint[roadId] = size;
+        pointCount[roadId] = departures.length;
+        size += departures.length;
+    }
+
+    /**
+     * @param roadId       The id of the road.
+     * @param staticWeight The travel time used if the road has no profile.
+     * @param departure    The time the road is entered.
+     * @return The travel time when entering the road at the given time.
+     */
+    public int travelTime(int roadId, int staticWeight, int departure) {
+        int count = roadId < pointCount.length ? pointCount[roadId] : 0;
+        if (count == 0) {
+            return staticWeight;
+        }
+        int first = firstPoint[roadId];
+        int last = first + count - 1;
+        if (departure <= times[first]) {
+            return travelTimes[first];
+        }
+        if (departure >= times[last]) {
+            return travelTimes[last];
+        }
+        // last breakpoint at or before the departure
+        int low = first;
+        int high = last;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= departure) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        long span = (long) times[high] - times[low];
+        long rise = (long) travelTimes[high] - travelTimes[low];
+        // rounding down keeps departure + travel time non-decreasing for FIFO profiles
+        return (int) (travelTimes[low] + Math.floorDiv(rise * (departure - times[low]), span));
+    }
+
+    /**
+     * Finds the route with the earliest arrival when leaving at the given time.
+     *
+     * @param graph     The evacuation graph, blocked roads are skipped.
+     * @param source    The start node.
+     * @param target    The destination node.
+     * @param departure The departure time at the source.
+     * @return The route; its distance is the travel time from the departure to the arrival.
+     */
+    public Route findRoute(EvacuationGraph graph, int source, int target, int departure) {
+        SearchContext context = SearchContext.current(graph.getNumberOfNodes());
+        int settledCount = search(graph, source, target, departure, context);
+        if (!context.isSettled(target)) {
+            return Route.unreachable(source, target, settledCount);
+        }
+        ShortestPathTree tree = context.toTree(source, graph.getNumberOfNodes(), settledCount);
+        return new Route(source, target, tree.getDistance(target), tree.getPath(target), settledCount);
+    }
+
+    /**
+     * Computes the earliest arrival at every node when leaving at the given time.
+     *
+     * @param graph     The evacuation graph, blocked roads are skipped.
+     * @param source    The node to route from.
+     * @param departure The departure time at the source.
+     * @return The tree of fastest routes; distances are travel times from the departure.
+     */
+    public ShortestPathTree calculateEvacuationRoutes(EvacuationGraph graph, int source, int departure) {
+        SearchContext context = SearchContext.current(graph.getNumberOfNodes());
+        int settledCount = search(graph, source, -1, departure, context);
+        return context.toTree(source, graph.getNumberOfNodes(), settledCount);
+    }
+
+    /**
+     * Time-dependent Dijkstra: keys are travel times since the departure, and every road is
+     * evaluated at the time it is reached. Stops once the target is settled, or runs to the
+     * end for target -1.
+     */
+    private int search(EvacuationGraph graph, int source, int target, int departure, SearchContext context) {
+        NetworkSnapshot state = graph.snapshot();
+        CompactGraph csr = state.network();
+        context.start();
+        context.update(source, 0, -1);
+        CustomPriorityQueue pq = context.getQueue();
+        pq.enqueue(source, 0);
+
+        int settledCount = 0;
+        while (!pq.isEmpty()) {
+            int u = pq.dequeueVertex();
+            context.settle(u);
+            settledCount++;
+            if (u == target) {
+                break;
+            }
+            int elapsed = context.getDistance(u);
+            int now = (int) Math.min(Integer.MAX_VALUE, (long) departure + elapsed);
+
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                int road = csr.edgeId(e);
+                if (!state.isOpen(road)) continue;
+
+                int v = csr.edgeTarget(e);
+                if (context.isSettled(v)) continue;
+
+                long arrival = (long) elapsed + travelTime(road, csr.edgeWeight(e), now);
+                if (arrival < context.getDistance(v)) {
+                    context.update(v, (int) arrival, u);
+                    pq.enqueueOrDecreaseKey(v, (int) arrival);
+                }
+            }
+        }
+        return settledCount;
+    }
+}
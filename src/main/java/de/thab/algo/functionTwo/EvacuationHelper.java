@@ -1,8 +1,10 @@
 package de.thab.algo.functionTwo;
 
 import de.thab.algo.abstractdatastructures.Graph;
+import de.thab.algo.abstractdatastructures.NearestSourceMap;
 import de.thab.algo.graphreader.GraphReader;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -53,6 +55,8 @@ public class EvacuationHelper {
             setPriorityNodeFromUserInput(infrastructureNodes, input);
 
             displayResults(graph, infrastructureNodes);
+
+            assignShelters(graph, vertexNames, input);
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
         }
@@ -72,10 +76,65 @@ public class EvacuationHelper {
     private static void displayResults(Graph graph, InfrastructureNode[] infrastructureNodes) {
         System.out.println("\nCalculating Shortest Paths from Priority Node:");
         int startNode = findFirstPriorityNode(infrastructureNodes);
-        graph.dijkstra(startNode);
+        graph.printShortestPaths(graph.dijkstra(startNode));
         printPriorityNodesInfo(infrastructureNodes);
     }
 
+    /**
+     * Asks for the shelter nodes and assigns every node to its closest shelter.
+     *
+     * One search from all shelters over the reverse graph covers every assembly point,
+     * instead of one Dijkstra run per assembly point.
+     */
+    private static void assignShelters(Graph graph, String[] vertexNames, Scanner scanner) {
+        System.out.println("\nEnter shelter node numbers separated by spaces (press Enter to skip):");
+        String line = scanner.hasNextLine() ? scanner.nextLine().trim() : "";
+        if (line.isEmpty()) {
+            return;
+        }
+
+        String[] tokens = line.split("\\s+");
+        int[] shelters = new int[tokens.length];
+        int count = 0;
+        for (String token : tokens) {
+            try {
+                int node = Integer.parseInt(token) - 1;
+                if (node >= 0 && node < vertexNames.length) {
+                    shelters[count++] = node;
+                    continue;
+                }
+            } catch (NumberFormatException ignored) {
+                // reported below like an out-of-range number
+            }
+            System.out.println("Invalid node number: " + token + ". Skipping.");
+        }
+        if (count == 0) {
+            return;
+        }
+
+        NearestSourceMap assignment = graph.nearestTargets(Arrays.copyOf(shelters, count));
+        printShelterAssignment(assignment, vertexNames);
+    }
+
+    private static void printShelterAssignment(NearestSourceMap assignment, String[] vertexNames) {
+        System.out.println("\n=== Nearest Shelter per Node ===");
+        System.out.println("Node		Shelter		Distance	Route");
+        System.out.println("----------------------------------------");
+        for (int v = 0; v < vertexNames.length; v++) {
+            if (!assignment.isReachable(v)) {
+                System.out.printf("%-12s\t%-12s\t%-9s\t%s%n", vertexNames[v], "-", "∞", "No shelter reachable");
+                continue;
+            }
+            int[] path = assignment.getPathToSource(v);
+            StringBuilder route = new StringBuilder(vertexNames[path[0]]);
+            for (int i = 1; i < path.length; i++) {
+                route.append(" → ").append(vertexNames[path[i]]);
+            }
+            System.out.printf("%-12s\t%-12s\t%-9d\t%s%n", vertexNames[v], vertexNames[assignment.getSource(v)],
+                    assignment.getDistance(v), route);
+        }
+    }
+
     private static int findFirstPriorityNode(InfrastructureNode[] nodes) {
         for (int i = 0; i < nodes.length; i++) {
             if (nodes[i].isPriority) {
@@ -5,8 +5,11 @@ import de.thab.algo.abstractdatastructures.Graph;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.regex.Pattern;
 
 public class GraphReader {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     /**
      * Reads a graph from a file and returns both the Graph object and vertex names.
      * Useful when you need to keep track of vertex names.
@@ -18,7 +21,7 @@ public class GraphReader {
     public static Object[] readFromFileWithNames(String filePath) throws IOException {
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             // Read nodes names from first line
-            String[] vertexNames = reader.readLine().trim().split("\\s+");
+            String[] vertexNames = WHITESPACE.split(reader.readLine().trim());
             int numberOfVertex = vertexNames.length;
 
             // Create new graph with the number of vertices
@@ -26,7 +29,7 @@ public class GraphReader {
 
             // Read adjacency matrix and add edges
             for (int i = 0; i < numberOfVertex; i++) {
-                String[] values = reader.readLine().trim().split("\\s+");
+                String[] values = WHITESPACE.split(reader.readLine().trim());
                 for (int j = 1; j < values.length; j++) {
                     int weight = Integer.parseInt(values[j]);
                     if (weight > 0) {
@@ -35,6 +38,7 @@ public class GraphReader {
                 }
             }
 
+            graph.freeze();
             return new Object[]{graph, vertexNames};
         }
     }
@@ -42,7 +46,7 @@ public class GraphReader {
     public static Object[] readFromFileWithNamesDijkstra(String filePath) throws IOException {
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             // Read nodes names from first line
-            String[] vertexNames = reader.readLine().trim().split("\\s+");
+            String[] vertexNames = WHITESPACE.split(reader.readLine().trim());
             int numberOfVertex = vertexNames.length;
 
             // Create new graph with the number of vertices
@@ -50,7 +54,7 @@ public class GraphReader {
 
             // Read adjacency matrix and add edges
             for (int i = 0; i < numberOfVertex; i++) {
-                String[] values = reader.readLine().trim().split("\\s+");
+                String[] values = WHITESPACE.split(reader.readLine().trim());
                 for (int j = 1; j < values.length; j++) {
                     int weight = Integer.parseInt(values[j]);
                     if (weight > 0) {
@@ -59,6 +63,7 @@ public class GraphReader {
                 }
             }
 
+            graph.freeze();
             return new Object[]{graph, vertexNames};
         }
     }
@@ -0,0 +1,166 @@
+package de.thab.algo;
+
+import de.thab.algo.abstractdatastructures.Biconnectivity;
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.Graph;
+import de.thab.algo.abstractdatastructures.UnionFind;
+import de.thab.algo.functionThree.EvacuationGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBiconnectivity {
+
+    /**
+     * Builds a sparse random network, so it has plenty of bridges and articulation points.
+     */
+    private static Graph sparseNetwork(int nodes, int edges, long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[nodes];
+        for (int i = 0; i < nodes; i++) {
+            names[i] = "N" + i;
+        }
+        Graph graph = new Graph(nodes, names);
+        for (int i = 0; i < edges; i++) {
+            graph.addEdge(random.nextInt(nodes), random.nextInt(nodes), 1 + random.nextInt(10));
+        }
+        return graph;
+    }
+
+    /**
+     * Counts the connected parts of a symmetric graph without one link and one node.
+     */
+    private static int countParts(CompactGraph graph, int skippedSlot, int skippedNode) {
+        int n = graph.getNumberOfNodes();
+        UnionFind parts = new UnionFind(n);
+        // the skipped link is stored twice, drop its copy from the other end as well
+        int skippedFrom = -1;
+        int skippedTo = -1;
+        boolean copyDropped = false;
+        if (skippedSlot != -1) {
+            for (int u = 0; u < n && skippedFrom == -1; u++) {
+                if (skippedSlot >= graph.edgeStart(u) && skippedSlot < graph.edgeEnd(u)) {
+                    skippedFrom = u;
+                    skippedTo = graph.edgeTarget(skippedSlot);
+                }
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.edgeTarget(e);
+                if (e == skippedSlot || u == skippedNode || v == skippedNode) {
+                    continue;
+                }
+                if (!copyDropped && u == skippedTo && v == skippedFrom
+                        && graph.edgeWeight(e) == graph.edgeWeight(skippedSlot)) {
+                    copyDropped = true;
+                    continue;
+                }
+                parts.union(u, v);
+            }
+        }
+        return parts.count() - (skippedNode == -1 ? 0 : 1);
+    }
+
+    @Test
+    void testBridgesAndArticulationPointsMatchRemoval() {
+        Graph graph = sparseNetwork(120, 150, 9);
+        CompactGraph csr = graph.compile();
+        Biconnectivity analysis = graph.findVulnerabilities();
+        int parts = countParts(csr, -1, -1);
+
+        boolean[][] bridge = new boolean[120][120];
+        for (int i = 0; i < analysis.getNumberOfBridges(); i++) {
+            bridge[analysis.getBridgeSource(i)][analysis.getBridgeTarget(i)] = true;
+            bridge[analysis.getBridgeTarget(i)][analysis.getBridgeSource(i)] = true;
+        }
+        for (int u = 0; u < 120; u++) {
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                int v = csr.edgeTarget(e);
+                assertEquals(countParts(csr, e, -1) > parts, bridge[u][v], "Bridge " + u + " - " + v);
+                if (!bridge[u][v]) {
+                    assertEquals(analysis.getComponent(u), analysis.getComponent(v),
+                            "Ends of a non-bridge should share a component");
+                } else {
+                    assertNotEquals(analysis.getComponent(u), analysis.getComponent(v));
+                }
+            }
+        }
+        for (int v = 0; v < 120; v++) {
+            assertEquals(countParts(csr, -1, v) > parts, analysis.isArticulationPoint(v), "Articulation point " + v);
+        }
+    }
+
+    @Test
+    void testParallelLinksAreNoBridge() {
+        Graph graph = new Graph(3, new String[]{"A", "B", "C"});
+        graph.addEdge(0, 1, 4);
+        graph.addEdge(0, 1, 6);
+        graph.addEdge(1, 2, 1);
+        Biconnectivity analysis = graph.findVulnerabilities();
+
+        assertEquals(1, analysis.getNumberOfBridges(), "Only B - C should be a bridge");
+        assertEquals(1, Math.min(analysis.getBridgeSource(0), analysis.getBridgeTarget(0)));
+        assertEquals(2, Math.max(analysis.getBridgeSource(0), analysis.getBridgeTarget(0)));
+        assertArrayEquals(new int[]{1}, analysis.getArticulationPoints());
+        assertEquals(2, analysis.getNumberOfComponents());
+    }
+
+    @Test
+    void testLongChainIsScannedIteratively() {
+        int nodes = 300_000;
+        String[] names = new String[nodes];
+        for (int i = 0; i < nodes; i++) {
+            names[i] = "N" + i;
+        }
+        Graph chain = new Graph(nodes, names);
+        for (int i = 0; i + 1 < nodes; i++) {
+            chain.addEdge(i, i + 1, 1);
+        }
+        Biconnectivity analysis = chain.findVulnerabilities();
+
+        assertEquals(nodes - 1, analysis.getNumberOfBridges());
+        assertEquals(nodes - 2, analysis.getArticulationPoints().length, "Every inner node should be critical");
+        assertEquals(nodes, analysis.getNumberOfComponents());
+    }
+
+    @Test
+    void testBlockedRoadCreatesBridge() {
+        // one-way ring A -> B -> C -> D -> A
+        EvacuationGraph network = new EvacuationGraph(4, new String[]{"A", "B", "C", "D"});
+        network.addEdge(0, 1, 3);
+        network.addEdge(1, 2, 3);
+        network.addEdge(2, 3, 3);
+        network.addEdge(3, 0, 3);
+        assertEquals(0, network.findVulnerabilities().getNumberOfBridges(), "A ring has no critical road");
+
+        network.blockRoad(3, 0);
+        Biconnectivity analysis = network.findVulnerabilities();
+        assertEquals(3, analysis.getNumberOfBridges(), "The rest of the ring becomes a chain");
+        assertArrayEquals(new int[]{1, 2}, analysis.getArticulationPoints());
+    }
+
+    @Test
+    void testTwoWayStreetsAreOneLink() {
+        // two-way chain A <-> B <-> C, every street stored as two roads
+        EvacuationGraph network = new EvacuationGraph(3, new String[]{"A", "B", "C"});
+        network.addEdge(0, 1, 3);
+        network.addEdge(1, 0, 3);
+        network.addEdge(1, 2, 3);
+        network.addEdge(2, 1, 3);
+        Biconnectivity analysis = network.findVulnerabilities();
+        assertEquals(2, analysis.getNumberOfBridges(), "Both streets of a chain are critical");
+        assertArrayEquals(new int[]{1}, analysis.getArticulationPoints());
+
+        // a third street closes the ring, so none of them is critical any more
+        network.addEdge(2, 0, 3);
+        network.addEdge(0, 2, 3);
+        assertEquals(0, network.findVulnerabilities().getNumberOfBridges(), "A two-way ring has no critical street");
+
+        network.blockRoad(2, 0);
+        assertEquals(2, network.findVulnerabilities().getNumberOfBridges(),
+                "Closing a street in both directions reopens the chain");
+    }
+}
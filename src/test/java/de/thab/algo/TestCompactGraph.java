@@ -0,0 +1,124 @@
+package de.thab.algo;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.EdgeIndex;
+import de.thab.algo.abstractdatastructures.Graph;
+import de.thab.algo.abstractdatastructures.GraphBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCompactGraph {
+    private Graph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new Graph(5, new String[]{"A", "B", "C", "D", "E"});
+        graph.addEdge(0, 1, 10);
+        graph.addEdge(0, 2, 20);
+        graph.addEdge(1, 2, 5);
+        graph.addEdge(3, 4, 15);
+    }
+
+    @Test
+    void testCompileKeepsAdjacency() {
+        CompactGraph csr = graph.compile();
+
+        assertEquals(5, csr.getNumberOfNodes(), "Node count should be kept");
+        assertEquals(8, csr.getNumberOfEdges(), "Every undirected edge should be stored in both directions");
+        assertEquals(2, csr.getDegree(0), "A should have two neighbours");
+        assertEquals(1, csr.edgeTarget(csr.edgeStart(0)), "First neighbour of A should be B");
+        assertEquals(10, csr.edgeWeight(csr.edgeStart(0)), "A -- B should weigh 10");
+    }
+
+    @Test
+    void testOnlyDijkstraEdgesAreMerged() {
+        graph.addEdge(0, 1, 7);
+        graph.addEdgeDijkstra(3, 0, 9);
+        graph.addEdgeDijkstra(3, 0, 4);
+        CompactGraph csr = graph.compile();
+
+        assertEquals(3, csr.getDegree(0), "Parallel undirected links should be kept");
+        assertEquals(2, csr.getDegree(3), "Repeated directed edges should collapse into one");
+        assertEquals(4, csr.getWeight(3, 0), "The lighter directed edge should be kept");
+    }
+
+    @Test
+    void testGetWeightOnCompiledGraph() {
+        assertEquals(5, graph.getWeight(2, 1), "C -- B should weigh 5");
+        assertEquals(0, graph.getWeight(0, 4), "Missing edge should weigh 0");
+    }
+
+    @Test
+    void testCompileIsCachedUntilModified() {
+        CompactGraph first = graph.compile();
+        assertSame(first, graph.compile(), "Unchanged graph should reuse the compiled form");
+
+        graph.addEdge(2, 3, 7);
+        CompactGraph second = graph.compile();
+        assertNotSame(first, second, "Adding an edge should invalidate the compiled form");
+        assertEquals(7, second.getWeight(3, 2), "New edge should be compiled");
+    }
+
+    @Test
+    void testFrozenGraphIsReadOnly() {
+        graph.freeze();
+
+        assertTrue(graph.isFrozen(), "Graph should be frozen");
+        assertEquals(2, graph.getAdjacentNodes(1).size(), "Adjacent nodes should be materialized from CSR");
+        assertThrows(IllegalStateException.class, () -> graph.addEdge(0, 3, 1));
+    }
+
+    @Test
+    void testBuilderGroupsEdgesBySource() {
+        GraphBuilder builder = new GraphBuilder(3);
+        builder.addEdge(2, 0, 4);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(2, 1, 6);
+        builder.addEdge(0, 2, 3);
+
+        CompactGraph csr = builder.build(new String[]{"A", "B", "C"});
+        assertEquals(2, csr.getDegree(0), "A should have two outgoing edges");
+        assertEquals(0, csr.getDegree(1), "B should have no outgoing edges");
+        assertEquals(1, csr.edgeTarget(csr.edgeStart(0)), "Insertion order should be kept per vertex");
+        assertEquals(3, csr.edgeId(csr.edgeStart(0) + 1), "Edge ids should be the insertion index");
+        assertEquals(6, csr.getWeight(2, 1), "C -> B should weigh 6");
+    }
+
+    @Test
+    void testBuilderMergesParallelEdges() {
+        GraphBuilder builder = new GraphBuilder(2);
+        builder.setMergeParallelEdges(true);
+        builder.addEdge(0, 1, 9);
+        builder.addEdge(0, 1, 2);
+        builder.addEdge(0, 1, 5);
+
+        CompactGraph csr = builder.build(new String[]{"A", "B"});
+        assertEquals(1, csr.getNumberOfEdges(), "Parallel edges should be collapsed");
+        assertEquals(2, csr.getWeight(0, 1), "The lightest parallel edge should be kept");
+        assertEquals(1, csr.edgeId(csr.edgeStart(0)), "The kept edge should keep its id");
+    }
+
+    @Test
+    void testEdgeIndexFindsEveryEdge() {
+        GraphBuilder builder = new GraphBuilder(300);
+        Random random = new Random(2);
+        for (int i = 0; i < 5000; i++) {
+            builder.addEdge(random.nextInt(300), random.nextInt(300), 1 + random.nextInt(50));
+        }
+        builder.setMergeParallelEdges(true);
+        CompactGraph csr = builder.build(new String[300]);
+        EdgeIndex index = new EdgeIndex(csr);
+
+        for (int u = 0; u < 300; u++) {
+            for (int v = 0; v < 300; v++) {
+                int edge = csr.findEdge(u, v);
+                assertEquals(edge == -1 ? -1 : csr.edgeId(edge), index.find(u, v), "Edge " + u + " -> " + v);
+            }
+        }
+        assertEquals(-1, index.find(-1, 0), "Invalid nodes should not be found");
+    }
+}
@@ -0,0 +1,86 @@
+package de.thab.algo;
+
+import de.thab.algo.abstractdatastructures.CustomHashMap;
+import de.thab.algo.abstractdatastructures.CustomMap;
+import de.thab.algo.abstractdatastructures.Graph;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
+import de.thab.algo.functionFour.ClusteringHelper;
+import de.thab.algo.functionFour.DistanceMatrix;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDistanceMatrix {
+    private static final int NODES = 120;
+    private Graph graph;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(17);
+        String[] names = new String[NODES];
+        for (int i = 0; i < NODES; i++) {
+            names[i] = "N" + i;
+        }
+        graph = new Graph(NODES, names);
+        for (int i = 0; i < NODES * 2; i++) {
+            graph.addEdge(random.nextInt(NODES), random.nextInt(NODES), 1 + random.nextInt(40));
+        }
+    }
+
+    private void assertMatchesDijkstra(DistanceMatrix matrix) {
+        assertEquals(NODES, matrix.getNumberOfNodes());
+        for (int u = 0; u < NODES; u++) {
+            ShortestPathTree tree = graph.dijkstra(u);
+            for (int v = 0; v < NODES; v++) {
+                assertEquals(tree.getDistance(v), matrix.distance(u, v), "Distance " + u + " -> " + v);
+            }
+        }
+    }
+
+    @Test
+    void testInMemoryMatrixMatchesDijkstra() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            DistanceMatrix matrix = DistanceMatrix.compute(graph, pool, false);
+            assertFalse(matrix.isMapped());
+            assertMatchesDijkstra(matrix);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMappedMatrixMatchesDijkstra() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            DistanceMatrix matrix = DistanceMatrix.compute(graph, pool, true);
+            assertTrue(matrix.isMapped());
+            assertMatchesDijkstra(matrix);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testKMedoidsAssignsEveryNodeOnce() {
+        ClusteringHelper helper = new ClusteringHelper(graph);
+        CustomHashMap<Integer, List<Integer>> clusters = helper.kMedoids(4, 50);
+
+        boolean[] seen = new boolean[NODES];
+        for (CustomMap.Entry<Integer, List<Integer>> entry : clusters.entrySet()) {
+            for (int node : entry.getValue()) {
+                assertFalse(seen[node], "Node " + node + " should be in one cluster only");
+                seen[node] = true;
+            }
+        }
+        for (int v = 0; v < NODES; v++) {
+            assertTrue(seen[v], "Node " + v + " should be assigned");
+        }
+    }
+}
@@ -97,4 +97,83 @@ public class TestMinHeapAndPriorityQueue {
         priorityQueue.dequeue();
         assertTrue(priorityQueue.isEmpty(), "Priority queue should be empty after dequeue");
     }
+
+    @Test
+    void testMinHeapExtractMinVertexOrder() {
+        minHeap.insertKey(0, 15);
+        minHeap.insertKey(1, 10);
+        minHeap.insertKey(2, 20);
+        minHeap.insertKey(3, 5);
+        minHeap.insertKey(4, 30);
+        minHeap.decreaseKey(4, 7);
+
+        int[] expected = {3, 4, 1, 0, 2};
+        for (int vertex : expected) {
+            assertEquals(vertex, minHeap.extractMinVertex(), "Vertices should come out in key order");
+            assertFalse(minHeap.contains(vertex), "Extracted vertex should no longer be in the heap");
+        }
+        assertEquals(0, minHeap.size(), "Heap should be empty after extracting all vertices");
+    }
+
+    @Test
+    void testCustomPriorityQueueDequeueVertex() {
+        priorityQueue.enqueue(0, 15);
+        priorityQueue.enqueue(1, 10);
+        priorityQueue.enqueue(2, 20);
+
+        assertEquals(10, priorityQueue.peekKey(), "Peeked key should be 10");
+        assertEquals(1, priorityQueue.dequeueVertex(), "Dequeued vertex should be 1");
+        assertEquals(2, priorityQueue.size(), "Two vertices should remain");
+    }
+
+    @Test
+    void testMinHeapInsertOrDecreaseKeyInsertsUnseenVertex() {
+        minHeap.insertKey(0, 15);
+
+        assertTrue(minHeap.insertOrDecreaseKey(3, 5), "An unseen vertex should be inserted");
+        assertTrue(minHeap.contains(3), "Inserted vertex should be in the heap");
+        assertEquals(2, minHeap.size(), "Heap should hold both vertices");
+        assertEquals(3, minHeap.extractMinVertex(), "Inserted vertex should have the lowest key");
+    }
+
+    @Test
+    void testMinHeapInsertOrDecreaseKeyDecreasesQueuedVertex() {
+        minHeap.insertKey(0, 15);
+        minHeap.insertKey(1, 10);
+        minHeap.insertKey(2, 20);
+
+        assertFalse(minHeap.insertOrDecreaseKey(2, 1), "A queued vertex should only get a lower key");
+        assertEquals(3, minHeap.size(), "Decreasing a key should not add an entry");
+        assertEquals(1, minHeap.getMin().getKey(), "Minimum key should be 1 after the decrease");
+        assertEquals(2, minHeap.extractMinVertex(), "Decreased vertex should come out first");
+    }
+
+    @Test
+    void testMinHeapInsertOrDecreaseKeyReinsertsExtractedVertex() {
+        minHeap.insertKey(0, 15);
+        minHeap.insertKey(1, 10);
+        assertEquals(1, minHeap.extractMinVertex(), "Vertex 1 should come out first");
+
+        assertTrue(minHeap.insertOrDecreaseKey(1, 30), "An extracted vertex should be inserted again");
+        assertEquals(2, minHeap.size(), "Heap should hold both vertices again");
+        assertEquals(0, minHeap.extractMinVertex(), "Vertex 0 should now have the lowest key");
+        assertEquals(1, minHeap.extractMinVertex(), "Reinserted vertex should keep its new key");
+    }
+
+    @Test
+    void testCustomPriorityQueueEnqueueOrDecreaseKey() {
+        priorityQueue.enqueueOrDecreaseKey(0, 15);
+        priorityQueue.enqueueOrDecreaseKey(1, 10);
+        assertEquals(2, priorityQueue.size(), "Unseen vertices should be enqueued");
+
+        priorityQueue.enqueueOrDecreaseKey(0, 5);
+        assertEquals(2, priorityQueue.size(), "Decreasing a key should not add an entry");
+        assertEquals(5, priorityQueue.peekKey(), "Peeked key should be 5 after the decrease");
+        assertEquals(0, priorityQueue.dequeueVertex(), "Decreased vertex should come out first");
+
+        priorityQueue.enqueueOrDecreaseKey(0, 20);
+        assertTrue(priorityQueue.contains(0), "A dequeued vertex should be enqueued again");
+        assertEquals(1, priorityQueue.dequeueVertex(), "Vertex 1 should now have the lowest key");
+        assertEquals(20, priorityQueue.peekKey(), "Re-enqueued vertex should keep its new key");
+    }
 }
@@ -0,0 +1,729 @@
+package de.thab.algo;
+
+import de.thab.algo.abstractdatastructures.Graph;
+import de.thab.algo.abstractdatastructures.NearestSourceMap;
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
+import de.thab.algo.functionThree.ContractionHierarchy;
+import de.thab.algo.functionThree.DynamicShortestPathTree;
+import de.thab.algo.functionThree.EvacuationGraph;
+import de.thab.algo.functionThree.HybridNetwork;
+import de.thab.algo.functionThree.HybridRoute;
+import de.thab.algo.functionThree.LandmarkIndex;
+import de.thab.algo.functionThree.NetworkSnapshot;
+import de.thab.algo.functionThree.RoadUpdateBatch;
+import de.thab.algo.functionThree.Route;
+import de.thab.algo.functionThree.RouteCache;
+import de.thab.algo.functionThree.RoutingService;
+import de.thab.algo.functionThree.ScenarioFile;
+import de.thab.algo.functionThree.TravelTimeProfiles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestShortestPaths {
+    private Graph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new Graph(5, new String[]{"A", "B", "C", "D", "E"});
+        graph.addEdgeDijkstra(0, 1, 4);
+        graph.addEdgeDijkstra(0, 2, 1);
+        graph.addEdgeDijkstra(2, 1, 2);
+        graph.addEdgeDijkstra(1, 3, 5);
+        graph.addEdgeDijkstra(3, 0, 1);
+    }
+
+    @Test
+    void testDijkstraDistancesAndPath() {
+        ShortestPathTree tree = graph.dijkstra(0);
+
+        assertEquals(3, tree.getDistance(1), "A -> C -> B should be shorter than A -> B");
+        assertEquals(8, tree.getDistance(3), "D should be reached over B");
+        assertFalse(tree.isReachable(4), "E has no incoming edge");
+        assertArrayEquals(new int[]{0, 2, 1, 3}, tree.getPath(3), "Path to D should follow the parents");
+        assertEquals(4, tree.getSettledCount(), "Only reachable nodes should be settled");
+    }
+
+    @Test
+    void testContextReuseInvalidatesOldTree() {
+        SearchContext context = new SearchContext(5);
+        ShortestPathTree first = graph.dijkstra(0, context);
+        ShortestPathTree kept = first.detach();
+        ShortestPathTree second = graph.dijkstra(3, context);
+
+        assertFalse(first.isValid(), "Tree should be invalid after the context was reused");
+        assertThrows(IllegalStateException.class, () -> first.getDistance(1));
+        assertEquals(3, kept.getDistance(1), "Detached tree should keep its distances");
+        assertEquals(1, second.getDistance(0), "New search should not see stale distances");
+        assertEquals(Integer.MAX_VALUE, second.getDistance(4), "Unreached node should have no distance");
+    }
+
+    @Test
+    void testNearestTargetsMatchesOneSearchPerNode() {
+        Random random = new Random(5);
+        int nodes = 150;
+        String[] names = new String[nodes];
+        for (int i = 0; i < nodes; i++) {
+            names[i] = "N" + i;
+        }
+        Graph city = new Graph(nodes, names);
+        for (int i = 0; i < nodes * 3; i++) {
+            city.addEdgeDijkstra(random.nextInt(nodes), random.nextInt(nodes), 1 + random.nextInt(30));
+        }
+        int[] shelters = {3, 40, 41, 99, 40};
+
+        NearestSourceMap assignment = city.nearestTargets(shelters);
+        for (int v = 0; v < nodes; v++) {
+            ShortestPathTree tree = city.dijkstra(v);
+            int best = Integer.MAX_VALUE;
+            for (int shelter : shelters) {
+                best = Math.min(best, tree.getDistance(shelter));
+            }
+            assertEquals(best, assignment.getDistance(v), "Distance to the nearest shelter should match");
+            if (assignment.isReachable(v)) {
+                int shelter = assignment.getSource(v);
+                assertEquals(best, tree.getDistance(shelter), "Assigned shelter should be a nearest one");
+                int[] path = assignment.getPathToSource(v);
+                assertEquals(v, path[0], "Route should start at the node");
+                assertEquals(shelter, path[path.length - 1], "Route should end at the shelter");
+            } else {
+                assertEquals(-1, assignment.getSource(v), "Unreachable node should have no shelter");
+            }
+        }
+    }
+
+    /**
+     * Builds a random road network with a few blocked roads.
+     */
+    private static EvacuationGraph randomNetwork(int nodes, long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[nodes];
+        for (int i = 0; i < nodes; i++) {
+            names[i] = "N" + i;
+        }
+        EvacuationGraph network = new EvacuationGraph(nodes, names);
+        for (int i = 0; i < nodes * 4; i++) {
+            network.addEdge(random.nextInt(nodes), random.nextInt(nodes), 1 + random.nextInt(20));
+        }
+        for (int i = 0; i < nodes / 5; i++) {
+            network.blockRoad(random.nextInt(nodes), random.nextInt(nodes));
+        }
+        return network;
+    }
+
+    @Test
+    void testBidirectionalRouteMatchesDijkstra() {
+        EvacuationGraph network = randomNetwork(200, 42);
+        for (int source = 0; source < 200; source += 17) {
+            ShortestPathTree tree = network.calculateEvacuationRoutes(source).detach();
+            for (int target = 0; target < 200; target += 7) {
+                Route route = network.findRoute(source, target);
+                assertEquals(tree.getDistance(target), route.getDistance(),
+                        "Bidirectional distance should match Dijkstra");
+                if (route.isReachable()) {
+                    int[] path = route.getPath();
+                    assertEquals(source, path[0], "Route should start at the source");
+                    assertEquals(target, path[path.length - 1], "Route should end at the target");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLandmarkRouteMatchesDijkstra() {
+        EvacuationGraph network = randomNetwork(200, 7);
+        LandmarkIndex index = LandmarkIndex.build(network, 6);
+
+        assertTrue(index.matches(network), "A new index should match its network");
+        for (int source = 0; source < 200; source += 13) {
+            ShortestPathTree tree = network.calculateEvacuationRoutes(source).detach();
+            for (int target = 0; target < 200; target += 11) {
+                Route route = index.findRoute(network, source, target);
+                assertEquals(tree.getDistance(target), route.getDistance(),
+                        "A* with landmarks should find the shortest distance");
+            }
+        }
+    }
+
+    @Test
+    void testStaleLandmarkIndexIsRejected() {
+        EvacuationGraph network = randomNetwork(100, 17);
+        LandmarkIndex index = LandmarkIndex.build(network, 4);
+
+        int dest = 0;
+        while (network.findRoad(0, dest) == -1) {
+            dest++;
+        }
+        network.blockRoad(0, dest);
+        index.findRoute(network, 0, 50);
+
+        RoadUpdateBatch faster = new RoadUpdateBatch();
+        faster.setWeight(0, dest, 1);
+        network.apply(faster);
+        assertThrows(IllegalStateException.class, () -> index.findRoute(network, 0, 50),
+                "Bounds from other travel times must not be used");
+    }
+
+    @Test
+    void testContractionHierarchyMatchesDijkstraAfterClosures() {
+        EvacuationGraph network = randomNetwork(200, 11);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(network);
+        assertHierarchyMatchesDijkstra(network, hierarchy);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 60; i++) {
+            network.blockRoad(random.nextInt(200), random.nextInt(200));
+        }
+        network.unblockRoad(random.nextInt(200), random.nextInt(200));
+        hierarchy.customize();
+        assertHierarchyMatchesDijkstra(network, hierarchy);
+    }
+
+    @Test
+    void testCustomizeRejectsNewRoads() {
+        EvacuationGraph network = randomNetwork(50, 13);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(network);
+        int src = 0;
+        int dest = 1;
+        while (network.findRoad(src, dest) != -1) {
+            dest++;
+        }
+        network.addEdge(src, dest, 1);
+        assertThrows(IllegalStateException.class, hierarchy::customize,
+                "A hierarchy must not be customized for a network with other roads");
+    }
+
+    private static void assertHierarchyMatchesDijkstra(EvacuationGraph network, ContractionHierarchy hierarchy) {
+        for (int source = 0; source < 200; source += 9) {
+            ShortestPathTree tree = network.calculateEvacuationRoutes(source).detach();
+            for (int target = 0; target < 200; target += 5) {
+                Route route = hierarchy.findRoute(source, target);
+                assertEquals(tree.getDistance(target), route.getDistance(),
+                        "Contraction hierarchy should find the shortest distance");
+                if (route.isReachable()) {
+                    int[] path = route.getPath();
+                    assertEquals(source, path[0], "Unpacked route should start at the source");
+                    assertEquals(target, path[path.length - 1], "Unpacked route should end at the target");
+                    int length = 0;
+                    for (int i = 1; i < path.length; i++) {
+                        ShortestPathTree step = network.calculateEvacuationRoutes(path[i - 1]);
+                        length += step.getDistance(path[i]);
+                    }
+                    assertEquals(route.getDistance(), length, "Unpacked roads should add up to the distance");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBatchUpdateKeepsHierarchyExact() {
+        EvacuationGraph network = randomNetwork(200, 19);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(network);
+        LandmarkIndex landmarks = LandmarkIndex.build(network, 4);
+
+        Random random = new Random(8);
+        RoadUpdateBatch batch = new RoadUpdateBatch();
+        int updates = 0;
+        while (updates < 150) {
+            int src = random.nextInt(200);
+            int dest = random.nextInt(200);
+            if (network.findRoad(src, dest) == -1) {
+                continue;
+            }
+            switch (updates % 3) {
+                case 0 -> batch.close(src, dest);
+                case 1 -> batch.reopen(src, dest);
+                default -> batch.setWeight(src, dest, 1 + random.nextInt(40));
+            }
+            updates++;
+        }
+        assertTrue(network.apply(batch), "Travel times should have changed");
+        hierarchy.customize();
+
+        assertHierarchyMatchesDijkstra(network, hierarchy);
+        assertFalse(landmarks.matches(network), "Changed travel times should invalidate the landmarks");
+    }
+
+    @Test
+    void testDynamicTreeFollowsClosuresAndReopenings() {
+        EvacuationGraph network = randomNetwork(300, 29);
+        DynamicShortestPathTree routes = new DynamicShortestPathTree(network, 0);
+        assertDynamicTreeMatchesDijkstra(network, routes);
+
+        Random random = new Random(4);
+        for (int i = 0; i < 200; i++) {
+            int src = random.nextInt(300);
+            int dest = random.nextInt(300);
+            if (network.findRoad(src, dest) == -1) {
+                continue;
+            }
+            if (random.nextInt(3) == 0) {
+                network.unblockRoad(src, dest);
+            } else {
+                network.blockRoad(src, dest);
+            }
+            routes.roadsChanged(src, dest);
+            assertDynamicTreeMatchesDijkstra(network, routes);
+        }
+
+        RoadUpdateBatch batch = new RoadUpdateBatch();
+        for (int src = 0; src < 300; src += 3) {
+            for (int dest = 0; dest < 300; dest += 7) {
+                if (network.findRoad(src, dest) != -1) {
+                    batch.setWeight(src, dest, 1 + random.nextInt(40));
+                }
+            }
+        }
+        network.apply(batch);
+        routes.apply(batch);
+        assertDynamicTreeMatchesDijkstra(network, routes);
+
+        // batches that close and reopen roads at once: node 4 comes back over the reopened
+        // road before the batch gets to it and must pass its new distance on to node 5
+        EvacuationGraph city = new EvacuationGraph(8, new String[]{"A", "B", "C", "D", "E", "F", "G", "H"});
+        city.addEdge(0, 6, 2);
+        city.addEdge(6, 4, 2);
+        city.addEdge(0, 4, 1);
+        city.addEdge(0, 7, 10);
+        city.addEdge(7, 5, 5);
+        city.addEdge(4, 5, 12);
+        city.blockRoad(0, 4);
+        DynamicShortestPathTree cityRoutes = new DynamicShortestPathTree(city, 0);
+        RoadUpdateBatch reroute = new RoadUpdateBatch();
+        reroute.close(6, 4);
+        reroute.reopen(0, 4);
+        city.apply(reroute);
+        cityRoutes.apply(reroute);
+        assertEquals(13, cityRoutes.getDistance(5), "F should be reached over the reopened road");
+        assertDynamicTreeMatchesDijkstra(city, cityRoutes);
+
+        for (int round = 0; round < 50; round++) {
+            RoadUpdateBatch mixed = new RoadUpdateBatch();
+            for (int i = 0; i < 8; i++) {
+                int src = random.nextInt(300);
+                int dest = random.nextInt(300);
+                if (network.findRoad(src, dest) == -1) {
+                    continue;
+                }
+                if (random.nextBoolean()) {
+                    mixed.reopen(src, dest);
+                } else {
+                    mixed.close(src, dest);
+                }
+            }
+            network.apply(mixed);
+            routes.apply(mixed);
+            assertDynamicTreeMatchesDijkstra(network, routes);
+        }
+    }
+
+    private static void assertDynamicTreeMatchesDijkstra(EvacuationGraph network, DynamicShortestPathTree routes) {
+        ShortestPathTree tree = network.calculateEvacuationRoutes(routes.getSource());
+        for (int v = 0; v < network.getNumberOfNodes(); v++) {
+            assertEquals(tree.getDistance(v), routes.getDistance(v), "Distance to " + v + " should match Dijkstra");
+            int parent = routes.getParent(v);
+            if (parent != -1) {
+                assertTrue(routes.getDistance(parent) < routes.getDistance(v),
+                        "Parents should be closer to the source");
+                assertTrue(network.findRoad(parent, v) != -1, "Parents should be neighbours");
+            } else {
+                assertTrue(v == routes.getSource() || !routes.isReachable(v),
+                        "Only the source and unreachable nodes have no parent");
+            }
+        }
+    }
+
+    @Test
+    void testRouteCacheFollowsGraphVersion() {
+        EvacuationGraph network = randomNetwork(100, 31);
+        RouteCache cache = new RouteCache(2);
+
+        ShortestPathTree first = cache.get(network, 0);
+        assertSame(first, cache.get(network, 0), "An unchanged graph should be served from the cache");
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        int dest = 0;
+        while (network.findRoad(0, dest) == -1) {
+            dest++;
+        }
+        long version = network.getVersion();
+        network.blockRoad(0, dest);
+        assertNotEquals(version, network.getVersion(), "Blocking a road should change the version");
+        ShortestPathTree blocked = cache.get(network, 0);
+        assertNotSame(first, blocked, "A closure should invalidate the cached tree");
+        assertEquals(network.calculateEvacuationRoutes(0).getDistance(dest), blocked.getDistance(dest));
+
+        cache.get(network, 1);
+        cache.get(network, 2);
+        assertEquals(2, cache.size(), "The cache should stay bounded");
+        assertNull(cache.get(0, network.getVersion()), "The least recently used tree should be evicted");
+        assertEquals(5, cache.getMisses());
+    }
+
+    @Test
+    void testReadersNeverSeeHalfAppliedBatches() throws InterruptedException {
+        EvacuationGraph network = new EvacuationGraph(4, new String[]{"A", "B", "C", "D"});
+        network.addEdge(0, 1, 1);
+        network.addEdge(1, 3, 1);
+        network.addEdge(0, 2, 2);
+        network.addEdge(2, 3, 2);
+        network.blockRoad(0, 2);
+
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                for (int i = 0; i < 20000 && failure.get() == null; i++) {
+                    NetworkSnapshot snapshot = network.snapshot();
+                    if (snapshot.isOpen(0, 1) == snapshot.isOpen(0, 2)) {
+                        failure.set("Snapshot " + snapshot.getVersion() + " holds half a batch");
+                    }
+                    int distance = network.calculateEvacuationRoutes(0).getDistance(3);
+                    if (distance != 2 && distance != 4) {
+                        failure.set("Route length " + distance + " mixes two batches");
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        for (int i = 0; i < 20000; i++) {
+            RoadUpdateBatch swap = new RoadUpdateBatch();
+            if (i % 2 == 0) {
+                swap.close(0, 1);
+                swap.reopen(0, 2);
+            } else {
+                swap.close(0, 2);
+                swap.reopen(0, 1);
+            }
+            network.apply(swap);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get(), failure.get());
+    }
+
+    @Test
+    void testRoutingServiceAnswersConcurrentQueries() {
+        EvacuationGraph network = randomNetwork(300, 37);
+        try (RoutingService service = new RoutingService(network, 4)) {
+            int count = 500;
+            @SuppressWarnings("unchecked")
+            CompletableFuture<Route>[] routes = new CompletableFuture[count];
+            for (int i = 0; i < count; i++) {
+                routes[i] = service.findRoute(i % 300, (i * 7 + 3) % 300);
+            }
+            CompletableFuture<ShortestPathTree> tree = service.calculateEvacuationRoutes(5);
+
+            for (int i = 0; i < count; i++) {
+                int expected = network.calculateEvacuationRoutes(i % 300).getDistance((i * 7 + 3) % 300);
+                assertEquals(expected, routes[i].join().getDistance(), "Concurrent route should match Dijkstra");
+            }
+            ShortestPathTree sequential = network.calculateEvacuationRoutes(5);
+            for (int v = 0; v < 300; v++) {
+                assertEquals(sequential.getDistance(v), tree.join().getDistance(v));
+            }
+
+            RoutingService.Statistics statistics = service.getStatistics();
+            assertEquals(count + 1, statistics.completedQueries());
+            assertEquals(0, statistics.failedQueries());
+            assertTrue(statistics.queriesPerSecond() > 0);
+            assertTrue(statistics.p99LatencyMicros() <= statistics.maxLatencyMicros() + 1);
+            assertThrows(IllegalArgumentException.class, () -> service.findRoute(-1, 0));
+        }
+    }
+
+    @Test
+    void testRoutingServiceCountsFailedQueriesApart() {
+        EvacuationGraph network = new EvacuationGraph(2, new String[]{"A", "B"}) {
+            @Override
+            public Route findRoute(int source, int target, SearchContext forward, SearchContext backward) {
+                if (source == target) {
+                    throw new IllegalStateException("Search failed");
+                }
+                return super.findRoute(source, target, forward, backward);
+            }
+        };
+        network.addEdge(0, 1, 4);
+        try (RoutingService service = new RoutingService(network, 2)) {
+            assertEquals(4, service.findRoute(0, 1).join().getDistance());
+            assertThrows(CompletionException.class, () -> service.findRoute(1, 1).join());
+
+            RoutingService.Statistics statistics = service.getStatistics();
+            assertEquals(1, statistics.completedQueries(), "Only the successful query should count as completed");
+            assertEquals(1, statistics.failedQueries());
+            assertEquals(4, service.findRoute(0, 1).join().getDistance(), "The workspace should be returned");
+        }
+    }
+
+    @Test
+    void testHybridRouteCrossesFloodedStreetByBoat() {
+        EvacuationGraph network = new EvacuationGraph(4, new String[]{"A", "B", "C", "D"});
+        network.addEdge(0, 1, 3);
+        network.addEdge(1, 2, 4);
+        network.addEdge(0, 3, 10);
+        network.addEdge(3, 2, 10);
+        network.blockRoad(1, 2);
+
+        HybridNetwork hybrid = HybridNetwork.fromRoads(network);
+        assertEquals(20, hybrid.findRoute(0, 2).getDistance(), "Without boats only the detour is left");
+
+        hybrid.addWaterway(1, 2, 5);
+        hybrid.addDock(1, 2);
+        HybridRoute route = hybrid.findRoute(0, 2);
+        assertEquals(3 + 2 + 5, route.getDistance(), "Driving, boarding and sailing should beat the detour");
+        assertArrayEquals(new int[]{0, 1, 2}, route.getPath());
+        assertArrayEquals(new int[]{HybridNetwork.CAR, HybridNetwork.BOAT}, route.getLegModes());
+        assertEquals(1, route.getTransfers());
+
+        hybrid.addDock(1, 20);
+        assertEquals(10, hybrid.findRoute(0, 2).getDistance(), "A second dock should keep the cheaper transfer");
+    }
+
+    @Test
+    void testHybridRouteWithoutDocksMatchesRoadRoute() {
+        EvacuationGraph network = randomNetwork(200, 41);
+        HybridNetwork hybrid = HybridNetwork.fromRoads(network);
+        Random random = new Random(6);
+        for (int i = 0; i < 100; i++) {
+            hybrid.addWaterway(random.nextInt(200), random.nextInt(200), 1);
+        }
+        for (int source = 0; source < 200; source += 23) {
+            ShortestPathTree tree = network.calculateEvacuationRoutes(source).detach();
+            for (int target = 0; target < 200; target += 9) {
+                HybridRoute route = hybrid.findRoute(source, target);
+                assertEquals(tree.getDistance(target), route.getDistance(),
+                        "Waterways without docks should never be used");
+                assertEquals(0, route.getTransfers());
+            }
+        }
+    }
+
+    @Test
+    void testRisingWaterChangesRouteWithDepartureTime() {
+        EvacuationGraph network = new EvacuationGraph(3, new String[]{"A", "B", "C"});
+        network.addEdge(0, 1, 5);
+        network.addEdge(0, 2, 7);
+        network.addEdge(2, 1, 8);
+        TravelTimeProfiles profiles = new TravelTimeProfiles();
+        assertTrue(profiles.setProfile(network, 0, 1, new int[]{10, 20}, new int[]{5, 50}));
+
+        assertEquals(5, profiles.findRoute(network, 0, 1, 0).getDistance(), "Before the flood the direct road is open");
+        assertEquals(9, profiles.findRoute(network, 0, 1, 11).getDistance(), "The water starts rising after 10");
+        Route late = profiles.findRoute(network, 0, 1, 15);
+        assertEquals(15, late.getDistance(), "Later the detour is faster");
+        assertArrayEquals(new int[]{0, 2, 1}, late.getPath());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> profiles.setProfile(network, 0, 2, new int[]{0, 5}, new int[]{20, 10}),
+                "A profile where leaving later arrives earlier should be rejected");
+    }
+
+    @Test
+    void testProfileCoversParallelRoads() {
+        EvacuationGraph network = new EvacuationGraph(2, new String[]{"A", "B"});
+        network.addEdge(0, 1, 5);
+        network.addEdge(0, 1, 3);
+        TravelTimeProfiles profiles = new TravelTimeProfiles();
+        assertTrue(profiles.setProfile(network, 0, 1, new int[]{0}, new int[]{100}));
+        assertEquals(100, profiles.findRoute(network, 0, 1, 0).getDistance());
+
+        int kept = network.findRoad(0, 1);
+        RoadUpdateBatch batch = new RoadUpdateBatch();
+        batch.setWeight(0, 1, 7);
+        network.apply(batch);
+        assertNotEquals(kept, network.findRoad(0, 1), "The rebuild should keep the other road");
+        assertEquals(100, profiles.findRoute(network, 0, 1, 0).getDistance(),
+                "The profile should stay in effect whichever parallel road is kept");
+    }
+
+    @Test
+    void testTimeDependentSearchMatchesLabelCorrecting() {
+        int n = 60;
+        Random random = new Random(12);
+        String[] names = new String[n];
+        Arrays.fill(names, "N");
+        EvacuationGraph network = new EvacuationGraph(n, names);
+        int[][] weights = new int[n][n];
+        for (int i = 0; i < n * 4; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u != v && weights[u][v] == 0) {
+                weights[u][v] = 1 + random.nextInt(20);
+                network.addEdge(u, v, weights[u][v]);
+            }
+        }
+        TravelTimeProfiles profiles = new TravelTimeProfiles();
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                if (weights[u][v] != 0 && random.nextBoolean()) {
+                    int[] departures = {random.nextInt(20), 20 + random.nextInt(20), 40 + random.nextInt(20)};
+                    int[] travelTimes = {1 + random.nextInt(30), 1 + random.nextInt(30), 0};
+                    travelTimes[1] = Math.max(travelTimes[1], travelTimes[0] - (departures[1] - departures[0]));
+                    travelTimes[2] = Math.max(1, travelTimes[1] - (departures[2] - departures[1]) + random.nextInt(10));
+                    profiles.setProfile(network.findRoad(u, v), departures, travelTimes);
+                }
+            }
+        }
+
+        for (int departure = 0; departure < 60; departure += 7) {
+            ShortestPathTree tree = profiles.calculateEvacuationRoutes(network, 0, departure).detach();
+            // Bellman-Ford on arrival times converges to the earliest arrivals for FIFO profiles
+            long[] arrival = new long[n];
+            Arrays.fill(arrival, Long.MAX_VALUE);
+            arrival[0] = departure;
+            for (boolean changed = true; changed; ) {
+                changed = false;
+                for (int u = 0; u < n; u++) {
+                    for (int v = 0; v < n; v++) {
+                        if (weights[u][v] == 0 || arrival[u] == Long.MAX_VALUE) continue;
+                        long candidate = arrival[u] + profiles.travelTime(network.findRoad(u, v), weights[u][v],
+                                (int) arrival[u]);
+                        if (candidate < arrival[v]) {
+                            arrival[v] = candidate;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                long expected = arrival[v] == Long.MAX_VALUE ? Integer.MAX_VALUE : arrival[v] - departure;
+                assertEquals(expected, tree.getDistance(v), "Earliest arrival at " + v + " leaving at " + departure);
+            }
+        }
+    }
+
+    @Test
+    void testBatchUpdatesCoverParallelRoads() {
+        EvacuationGraph network = new EvacuationGraph(2, new String[]{"A", "B"});
+        network.addEdge(0, 1, 5);
+        network.addEdge(0, 1, 2);
+        network.blockRoad(0, 1);
+
+        RoadUpdateBatch slower = new RoadUpdateBatch();
+        slower.setWeight(0, 1, 9);
+        network.apply(slower);
+        assertFalse(network.findRoute(0, 1).isReachable(), "The closure should hold for every parallel road");
+
+        network.unblockRoad(0, 1);
+        assertEquals(9, network.findRoute(0, 1).getDistance(), "Every parallel road should get the new travel time");
+
+        RoadUpdateBatch faster = new RoadUpdateBatch();
+        faster.close(0, 1);
+        faster.setWeight(0, 1, 1);
+        network.apply(faster);
+        assertFalse(network.findRoute(0, 1).isReachable(), "A closure in the same batch should survive the rebuild");
+    }
+
+    @Test
+    void testHierarchyQueriesNeverSeeHalfCustomizedArcs() throws InterruptedException {
+        EvacuationGraph network = new EvacuationGraph(4, new String[]{"A", "B", "C", "D"});
+        network.addEdge(0, 1, 1);
+        network.addEdge(1, 3, 1);
+        network.addEdge(0, 2, 2);
+        network.addEdge(2, 3, 2);
+        network.blockRoad(0, 2);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(network);
+
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                for (int i = 0; i < 20000 && failure.get() == null; i++) {
+                    int distance = hierarchy.findRoute(0, 3).getDistance();
+                    if (distance != 2 && distance != 4) {
+                        failure.set("Route length " + distance + " from a half customized hierarchy");
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        for (int i = 0; i < 5000; i++) {
+            RoadUpdateBatch swap = new RoadUpdateBatch();
+            swap.close(0, i % 2 == 0 ? 1 : 2);
+            swap.reopen(0, i % 2 == 0 ? 2 : 1);
+            network.apply(swap);
+            hierarchy.customize();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get(), failure.get());
+    }
+
+    @Test
+    void testInvalidBatchChangesNothing() {
+        EvacuationGraph network = randomNetwork(100, 23);
+        int src = 0;
+        int dest = 0;
+        while (network.findRoad(src, dest) == -1) {
+            dest++;
+        }
+        int before = network.calculateEvacuationRoutes(src).getDistance(dest);
+
+        RoadUpdateBatch batch = new RoadUpdateBatch();
+        batch.setWeight(src, dest, before + 1000);
+        batch.close(src, dest);
+        batch.setWeight(src, dest, 0);
+        assertThrows(IllegalArgumentException.class, () -> network.apply(batch));
+        assertEquals(before, network.calculateEvacuationRoutes(src).getDistance(dest),
+                "A rejected batch should leave every road as it was");
+    }
+
+    @Test
+    void testScenarioFilesInBothFormats(@TempDir Path directory) throws IOException {
+        String[] names = {"A", "B", "C", "D"};
+        Path text = directory.resolve("survey.txt");
+        Files.writeString(text, """
+                # flood survey
+                close A B
+                weight B C 9
+
+                open 1 2
+                weight C D 4
+                """);
+        RoadUpdateBatch batch = ScenarioFile.read(text, names);
+        assertEquals(4, batch.size());
+
+        Path binary = directory.resolve("survey.bin");
+        ScenarioFile.writeBinary(binary, batch);
+        RoadUpdateBatch copy = ScenarioFile.read(binary, names);
+        assertEquals(4, copy.size());
+
+        EvacuationGraph fromText = new EvacuationGraph(4, names);
+        EvacuationGraph fromBinary = new EvacuationGraph(4, names);
+        for (EvacuationGraph network : new EvacuationGraph[]{fromText, fromBinary}) {
+            network.addEdge(0, 1, 1);
+            network.addEdge(1, 2, 1);
+            network.addEdge(2, 3, 1);
+            network.addEdge(0, 3, 20);
+        }
+        fromText.apply(batch);
+        fromBinary.apply(copy);
+        assertEquals(14, fromText.calculateEvacuationRoutes(0).getDistance(3), "A -> B reopened, B -> C and C -> D slower");
+        assertEquals(14, fromBinary.calculateEvacuationRoutes(0).getDistance(3));
+
+        Files.writeString(text, "close A Z\n");
+        assertThrows(IOException.class, () -> ScenarioFile.read(text, names), "Unknown nodes should be rejected");
+
+        byte[] bytes = Files.readAllBytes(binary);
+        Files.write(binary, Arrays.copyOf(bytes, bytes.length + 1));
+        assertThrows(IOException.class, () -> ScenarioFile.read(binary, names), "Trailing data should be rejected");
+        bytes[4] = (byte) 0xFF;
+        Files.write(binary, bytes);
+        assertThrows(IOException.class, () -> ScenarioFile.read(binary, names), "A negative count should be rejected");
+    }
+}
@@ -0,0 +1,340 @@
+package de.thab.algo;
+
+import de.thab.algo.abstractdatastructures.CompactGraph;
+import de.thab.algo.abstractdatastructures.Graph;
+import de.thab.algo.abstractdatastructures.SearchContext;
+import de.thab.algo.abstractdatastructures.ShortestPathTree;
+import de.thab.algo.abstractdatastructures.SpanningForest;
+import de.thab.algo.abstractdatastructures.UnionFind;
+import de.thab.algo.functionOne.Boruvka;
+import de.thab.algo.functionOne.DynamicSpanningForest;
+import de.thab.algo.functionOne.Kruskal;
+import de.thab.algo.functionOne.MstSensitivity;
+import de.thab.algo.functionOne.SteinerTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSpanningForest {
+
+    /**
+     * Builds a random undirected network made of several separate regions.
+     */
+    private static Graph randomNetwork(int nodes, int edges, int regions, long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[nodes];
+        for (int i = 0; i < nodes; i++) {
+            names[i] = "N" + i;
+        }
+        Graph graph = new Graph(nodes, names);
+        int regionSize = nodes / regions;
+        for (int i = 0; i < edges; i++) {
+            int region = random.nextInt(regions);
+            int u = region * regionSize + random.nextInt(regionSize);
+            int v = region * regionSize + random.nextInt(regionSize);
+            graph.addEdge(u, v, random.nextInt(1000));
+        }
+        return graph;
+    }
+
+    private static void assertIsForest(SpanningForest forest) {
+        UnionFind components = new UnionFind(forest.getNumberOfNodes());
+        for (int i = 0; i < forest.getNumberOfEdges(); i++) {
+            assertTrue(components.union(forest.getSource(i), forest.getTarget(i)), "Forest should not contain a cycle");
+        }
+    }
+
+    @Test
+    void testUnionFind() {
+        UnionFind components = new UnionFind(6);
+        assertTrue(components.union(0, 1));
+        assertTrue(components.union(2, 3));
+        assertTrue(components.union(1, 3));
+        assertFalse(components.union(0, 2), "Elements should already be connected");
+        assertTrue(components.connected(0, 3));
+        assertFalse(components.connected(0, 4));
+        assertEquals(4, components.size(2));
+        assertEquals(3, components.count());
+        assertEquals(components.find(3), components.findReadOnly(1));
+    }
+
+    @Test
+    void testKruskalVariantsAgree() {
+        Graph graph = randomNetwork(5000, 60000, 1, 21);
+        SpanningForest sorted = Kruskal.kruskal(graph.compile());
+        SpanningForest filtered = Kruskal.filterKruskal(graph.compile());
+
+        assertIsForest(sorted);
+        assertIsForest(filtered);
+        assertEquals(sorted.getTotalWeight(), filtered.getTotalWeight(), "Both variants should find a minimum forest");
+        assertEquals(sorted.getNumberOfEdges(), filtered.getNumberOfEdges());
+    }
+
+    @Test
+    void testDisconnectedNetworkGivesForest() {
+        Graph graph = randomNetwork(3000, 40000, 3, 8);
+        SpanningForest forest = Kruskal.filterKruskal(graph.compile());
+
+        assertIsForest(forest);
+        assertEquals(3, forest.getNumberOfTrees(), "Every region should get its own tree");
+        assertFalse(forest.isSpanningTree());
+        for (int i = 0; i < forest.getNumberOfEdges(); i++) {
+            assertEquals(forest.getSource(i) / 1000, forest.getTarget(i) / 1000, "Edges should stay inside a region");
+        }
+    }
+
+    @Test
+    void testParallelBoruvkaMatchesKruskal() {
+        Graph graph = randomNetwork(6000, 50000, 2, 33);
+        SpanningForest expected = Kruskal.kruskal(graph.compile());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SpanningForest forest = Boruvka.minimumSpanningForest(graph.compile(), pool);
+            assertIsForest(forest);
+            assertEquals(expected.getTotalWeight(), forest.getTotalWeight(), "Boruvka should find a minimum forest");
+            assertEquals(expected.getNumberOfTrees(), forest.getNumberOfTrees());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testPrimReturnsRootedForest() {
+        Graph graph = randomNetwork(3000, 30000, 3, 4);
+        SpanningForest prim = graph.primMST(1500);
+        SpanningForest kruskal = Kruskal.kruskal(graph.compile());
+
+        assertIsForest(prim);
+        assertEquals(kruskal.getTotalWeight(), prim.getTotalWeight(), "Prim should find a minimum forest");
+        assertEquals(3, prim.getNumberOfTrees(), "Prim should restart in every region");
+        assertEquals(1500, prim.getRoots()[0], "The first tree should grow from the start node");
+
+        int[] order = prim.preorder();
+        boolean[] seen = new boolean[3000];
+        for (int node : order) {
+            int parent = prim.getParent(node);
+            assertTrue(parent == -1 || seen[parent], "Parents should come before their children");
+            seen[node] = true;
+        }
+        for (int v = 0; v < 3000; v++) {
+            for (int k = prim.childStart(v); k < prim.childEnd(v); k++) {
+                assertEquals(v, prim.getParent(prim.getChild(k)), "Children should point back to their parent");
+            }
+        }
+    }
+
+    @Test
+    void testLongChainIsTraversedIteratively() {
+        int nodes = 200_000;
+        String[] names = new String[nodes];
+        for (int i = 0; i < nodes; i++) {
+            names[i] = "N" + i;
+        }
+        Graph chain = new Graph(nodes, names);
+        for (int i = 0; i + 1 < nodes; i++) {
+            chain.addEdge(i, i + 1, 1 + i % 7);
+        }
+        SpanningForest prim = chain.primMST(0);
+        SpanningForest rooted = Kruskal.kruskal(chain.compile());
+
+        assertEquals(nodes - 1, prim.getNumberOfEdges());
+        assertEquals(nodes - 1, prim.preorder()[nodes - 1], "Preorder should follow the chain to its end");
+        assertEquals(nodes - 2, rooted.getParent(nodes - 1), "Kruskal forest should be rooted at node 0");
+        assertEquals(prim.getTotalWeight(), rooted.getTotalWeight());
+    }
+
+    @Test
+    void testDynamicForestFollowsFailuresAndRepairs() {
+        int nodes = 400;
+        Graph graph = randomNetwork(nodes, 1200, 2, 17);
+        DynamicSpanningForest plan = DynamicSpanningForest.of(graph.compile());
+        assertEquals(Kruskal.kruskal(graph.compile()).getTotalWeight(), plan.getTotalCost());
+
+        // replay the same updates on a plain list of links and recompute from scratch
+        Random random = new Random(5);
+        int[][] links = new int[4000][];
+        int count = 0;
+        CompactGraph csr = graph.compile();
+        for (int u = 0; u < nodes; u++) {
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                if (u < csr.edgeTarget(e)) {
+                    links[count++] = new int[]{u, csr.edgeTarget(e), csr.edgeWeight(e)};
+                }
+            }
+        }
+        for (int step = 0; step < 600; step++) {
+            int id = random.nextInt(count);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    int u = random.nextInt(nodes);
+                    int v = random.nextInt(nodes);
+                    int weight = random.nextInt(1000);
+                    assertEquals(count, plan.addLink(u, v, weight), "Link ids should be handed out in order");
+                    links[count++] = new int[]{u, v, weight};
+                }
+                case 1 -> {
+                    if (links[id] != null) {
+                        plan.removeLink(id);
+                        links[id] = null;
+                    }
+                }
+                default -> {
+                    if (links[id] != null) {
+                        int weight = random.nextInt(1000);
+                        plan.setCost(id, weight);
+                        links[id][2] = weight;
+                    }
+                }
+            }
+
+            if (step % 50 == 49) {
+                String[] names = new String[nodes];
+                Arrays.fill(names, "N");
+                Graph rebuilt = new Graph(nodes, names);
+                for (int k = 0; k < count; k++) {
+                    if (links[k] != null) {
+                        rebuilt.addEdge(links[k][0], links[k][1], links[k][2]);
+                    }
+                }
+                SpanningForest expected = Kruskal.kruskal(rebuilt.compile());
+                SpanningForest forest = plan.snapshot();
+                assertIsForest(forest);
+                assertEquals(expected.getTotalWeight(), plan.getTotalCost(), "Forest should stay minimal after step " + step);
+                assertEquals(expected.getTotalWeight(), forest.getTotalWeight());
+                assertEquals(expected.getNumberOfTrees(), plan.getNumberOfTrees());
+            }
+        }
+    }
+
+    @Test
+    void testSteinerTreeConnectsOnlyTerminals() {
+        int nodes = 4000;
+        Graph graph = randomNetwork(nodes, 16000, 1, 12);
+        CompactGraph csr = graph.compile();
+        int[] terminals = new Random(3).ints(25, 0, nodes).toArray();
+        SpanningForest tree = SteinerTree.mehlhorn(csr, terminals);
+
+        assertIsForest(tree);
+        UnionFind parts = new UnionFind(nodes);
+        int[] degree = new int[nodes];
+        for (int i = 0; i < tree.getNumberOfEdges(); i++) {
+            parts.union(tree.getSource(i), tree.getTarget(i));
+            degree[tree.getSource(i)]++;
+            degree[tree.getTarget(i)]++;
+        }
+        boolean[] terminal = new boolean[nodes];
+        for (int t : terminals) {
+            terminal[t] = true;
+            assertTrue(parts.connected(terminals[0], t), "Every terminal should be connected");
+        }
+        for (int v = 0; v < nodes; v++) {
+            assertFalse(degree[v] == 1 && !terminal[v], "Leaves should be terminals");
+        }
+
+        // never heavier than a spanning tree of the terminal distances
+        int[][] distance = new int[terminals.length][];
+        for (int i = 0; i < terminals.length; i++) {
+            ShortestPathTree paths = csr.dijkstra(terminals[i], new SearchContext(nodes));
+            distance[i] = new int[terminals.length];
+            for (int j = 0; j < terminals.length; j++) {
+                distance[i][j] = paths.getDistance(terminals[j]);
+            }
+        }
+        long closure = 0;
+        int[] key = new int[terminals.length];
+        boolean[] done = new boolean[terminals.length];
+        Arrays.fill(key, Integer.MAX_VALUE);
+        key[0] = 0;
+        for (int round = 0; round < terminals.length; round++) {
+            int best = -1;
+            for (int j = 0; j < terminals.length; j++) {
+                if (!done[j] && (best == -1 || key[j] < key[best])) {
+                    best = j;
+                }
+            }
+            done[best] = true;
+            closure += key[best];
+            for (int j = 0; j < terminals.length; j++) {
+                key[j] = Math.min(key[j], distance[best][j]);
+            }
+        }
+        assertTrue(tree.getTotalWeight() <= closure, "Steiner tree should not exceed the terminal distance tree");
+    }
+
+    @Test
+    void testSteinerTreeOverAllNodesIsMinimumSpanningTree() {
+        Graph graph = randomNetwork(2000, 9000, 2, 6);
+        int[] everyNode = new int[2000];
+        Arrays.setAll(everyNode, i -> i);
+        SpanningForest tree = SteinerTree.mehlhorn(graph.compile(), everyNode);
+
+        assertEquals(Kruskal.kruskal(graph.compile()).getTotalWeight(), tree.getTotalWeight());
+        assertEquals(2, tree.getNumberOfTrees());
+    }
+
+    @Test
+    void testReplacementLinksMatchRecomputation() {
+        int nodes = 300;
+        Graph graph = randomNetwork(nodes, 700, 2, 41);
+        CompactGraph csr = graph.compile();
+        SpanningForest mst = graph.primMST(0);
+        MstSensitivity sensitivity = MstSensitivity.analyze(csr, mst);
+
+        for (int child = 0; child < nodes; child++) {
+            int parent = mst.getParent(child);
+            if (parent == -1) {
+                continue;
+            }
+            // rebuild without one copy of the failed link
+            String[] names = new String[nodes];
+            Arrays.fill(names, "N");
+            Graph damaged = new Graph(nodes, names);
+            boolean removed = false;
+            for (int u = 0; u < nodes; u++) {
+                for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                    int v = csr.edgeTarget(e);
+                    if (v < u) {
+                        continue;
+                    }
+                    boolean failed = !removed && csr.edgeWeight(e) == mst.getParentWeight(child)
+                            && (u == child && v == parent || u == parent && v == child);
+                    if (failed) {
+                        removed = true;
+                    } else {
+                        damaged.addEdge(u, v, csr.edgeWeight(e));
+                    }
+                }
+            }
+            SpanningForest repaired = Kruskal.kruskal(damaged.compile());
+            if (repaired.getNumberOfTrees() > mst.getNumberOfTrees()) {
+                assertFalse(sensitivity.hasReplacement(child), "A bridge should have no replacement");
+            } else {
+                assertEquals(repaired.getTotalWeight() - mst.getTotalWeight(), sensitivity.getCostIncrease(child),
+                        "Replacement of " + parent + " -- " + child + " should match a full recomputation");
+            }
+        }
+
+        int[] ranked = sensitivity.mostVitalLinks(10);
+        for (int i = 1; i < ranked.length; i++) {
+            assertTrue(sensitivity.getCostIncrease(ranked[i - 1]) >= sensitivity.getCostIncrease(ranked[i]),
+                    "Links should be ranked by cost increase");
+        }
+
+        // a triangle with a pendant node: only the pendant link has no replacement
+        Graph triangle = new Graph(4, new String[]{"A", "B", "C", "D"});
+        triangle.addEdge(0, 1, 1);
+        triangle.addEdge(1, 2, 2);
+        triangle.addEdge(2, 0, 9);
+        triangle.addEdge(2, 3, 5);
+        SpanningForest small = triangle.primMST(0);
+        MstSensitivity smallSensitivity = MstSensitivity.analyze(triangle.compile(), small);
+        int[] top = smallSensitivity.mostVitalLinks(1);
+        assertArrayEquals(new int[]{3}, top, "The bridge to D should rank first");
+        assertFalse(smallSensitivity.hasReplacement(top[0]), "The first link should have no replacement");
+        assertEquals(3, smallSensitivity.mostVitalLinks(10).length, "Every tree link should be ranked");
+    }
+}